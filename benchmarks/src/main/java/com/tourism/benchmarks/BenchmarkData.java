@@ -0,0 +1,69 @@
+package com.tourism.benchmarks;
+
+import com.tourism.tools.DatasetGenerator;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// Data directories for the benchmarks, made by DatasetGenerator with the given number of
+// records in every file. Each size is generated once under target/benchmark-data and
+// reused by every fork; benchmarks that write work on a scratch copy. FileHandler reads its
+// data directory once per JVM, so open() must run before anything else touches FileHandler
+// (JMH forks a fresh JVM per benchmark and parameter set).
+final class BenchmarkData {
+    private static final Path ROOT = Paths.get(System.getProperty("tourism.bench.dir", "target/benchmark-data"));
+    private static final String COMPLETE = ".complete";
+
+    private BenchmarkData() {
+    }
+
+    static Path shared(int records) {
+        return ROOT.resolve(Integer.toString(records));
+    }
+
+    // A private copy of the shared dataset (empty if it has not been generated yet)
+    static Path scratchCopy(int records) throws IOException {
+        Files.createDirectories(ROOT);
+        Path scratch = Files.createTempDirectory(ROOT, "scratch-" + records + "-");
+        Path source = shared(records);
+        if (Files.exists(source.resolve(COMPLETE))) {
+            try (Stream<Path> files = Files.list(source)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (Files.isRegularFile(file)) {
+                        Files.copy(file, scratch.resolve(file.getFileName()));
+                    }
+                }
+            }
+        }
+        return scratch;
+    }
+
+    // Point FileHandler at the directory, generating the dataset there first if needed
+    static void open(Path dir, int records) throws IOException {
+        System.setProperty("tourism.data.dir", dir.toString());
+        Files.createDirectories(dir);
+        if (Files.exists(dir.resolve(COMPLETE))) {
+            return;
+        }
+        generate(dir, records);
+        Files.createFile(dir.resolve(COMPLETE));
+    }
+
+    static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // Same seed for every run, so every run of one size sees the same data
+    private static void generate(Path dir, int records) {
+        String count = Integer.toString(records);
+        DatasetGenerator.main(new String[] {
+            "--dir", dir.toString(), "--tourists", count, "--guides", count,
+            "--attractions", count, "--bookings", count, "--seed", count
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.tourism.benchmarks;
+
+import com.tourism.models.Attraction;
+import com.tourism.models.Booking;
+import com.tourism.models.Guide;
+import com.tourism.models.Tourist;
+import com.tourism.utils.FileHandler;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Full loads of each data file. Add -jvmArgsAppend -Dtourism.storage=binary to measure the
+// binary layout, or -Dtourism.io.mmap=true for memory-mapped text reads.
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class LoadBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int records;
+
+    private Map<String, Attraction> attractionsByName;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData.open(BenchmarkData.shared(records), records);
+        attractionsByName = new HashMap<>();
+        for (Attraction attraction : FileHandler.loadAttractions()) {
+            attractionsByName.put(attraction.getName(), attraction);
+        }
+    }
+
+    @Benchmark
+    public List<Tourist> loadTourists() {
+        return FileHandler.loadTourists();
+    }
+
+    @Benchmark
+    public List<Guide> loadGuides() {
+        return FileHandler.loadGuides();
+    }
+
+    @Benchmark
+    public List<Attraction> loadAttractions() {
+        return FileHandler.loadAttractions();
+    }
+
+    // With the attractions already loaded, as BookingRepository does, so this measures the
+    // bookings file alone
+    @Benchmark
+    public List<Booking> loadBookings() {
+        return FileHandler.loadBookings(attractionsByName);
+    }
+}
@@ -0,0 +1,51 @@
+package com.tourism.benchmarks;
+
+import com.tourism.models.Booking;
+import com.tourism.utils.FileHandler;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Booking writes, on a scratch copy of the dataset so the shared one stays as generated
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class SaveBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int records;
+
+    private Path scratch;
+    private List<Booking> bookings;
+    private Booking booking;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        scratch = BenchmarkData.scratchCopy(records);
+        BenchmarkData.open(scratch, records);
+        bookings = FileHandler.loadBookings();
+        booking = bookings.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.delete(scratch);
+    }
+
+    // Atomic rewrite of the whole bookings file
+    @Benchmark
+    public void saveAllBookings() {
+        FileHandler.saveAllBookings(bookings);
+    }
+
+    // One record appended; the cost does not depend on the file size, so the growing file
+    // does not skew later iterations
+    @Benchmark
+    public void saveBooking() {
+        FileHandler.saveBooking(booking);
+    }
+}
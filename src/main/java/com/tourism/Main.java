@@ -6,7 +6,13 @@ import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCodeCombination;
 import javafx.stage.Stage;
+import com.tourism.repository.AttractionRepository;
+import com.tourism.repository.BookingRepository;
+import com.tourism.repository.GuideRepository;
+import com.tourism.repository.TouristRepository;
+import com.tourism.services.DataAccessService;
 import com.tourism.utils.FileHandler;
+import com.tourism.utils.Metrics;
 
 public class Main extends Application {
     
@@ -16,9 +22,21 @@ public class Main extends Application {
     public void start(Stage primaryStage) throws Exception {
         Main.primaryStage = primaryStage;
         
+        // File or HTTP export of the metrics, if configured (see Metrics)
+        Metrics.startExporters();
+        
         // Initialize data files
         FileHandler.initializeDataFiles();
         
+        // Load all data into memory once; screens read from the repositories afterwards.
+        // This runs on the data thread so the login screen appears straight away.
+        DataAccessService.submit(() -> {
+            TouristRepository.load();
+            GuideRepository.load();
+            AttractionRepository.load();
+            BookingRepository.load();
+        });
+        
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
         Scene scene = new Scene(loader.load(), 1920, 1080);
         
@@ -55,6 +73,15 @@ public class Main extends Application {
         primaryStage.setFullScreen(true);
     }
     
+    @Override
+    public void stop() {
+        // Let queued saves reach the data files before the JVM exits
+        DataAccessService.submit(TouristRepository::flushSpending);
+        DataAccessService.submit(GuideRepository::flushEarnings);
+        DataAccessService.shutdown();
+        Metrics.stopExporters();
+    }
+    
     // Utility method to switch scenes while maintaining full screen
     public static void switchScene(Scene newScene, String title) {
         if (primaryStage != null) {
@@ -2,9 +2,16 @@ package com.tourism.controllers;
 
 import com.tourism.Main;
 import com.tourism.models.*;
-import com.tourism.utils.FileHandler;
+import com.tourism.repository.AttractionRepository;
+import com.tourism.repository.BookingRepository;
+import com.tourism.repository.GuideRepository;
+import com.tourism.repository.UsernameIndex;
+import com.tourism.services.AnalyticsService;
+import com.tourism.services.BookingService;
+import com.tourism.services.DataAccessService;
 import com.tourism.utils.LanguageManager;
 import com.tourism.utils.DialogUtils;
+import com.tourism.utils.Logger;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -16,9 +23,10 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class AdminDashboardController {
+    private static final Logger LOG = Logger.get(AdminDashboardController.class);
+    
     @FXML private Label welcomeLabel;
     @FXML private Label dashboardInfoLabel;
     @FXML private TabPane mainTabPane;
@@ -83,12 +91,19 @@ public class AdminDashboardController {
     @FXML private Button languageToggleButton;
     @FXML private Button logoutButton;
     @FXML private Button refreshDataButton;
+    @FXML private ProgressIndicator progressIndicator;
     
     private Admin currentUser;
     private ObservableList<Guide> guides;
     private ObservableList<Attraction> attractions;
     private ObservableList<Booking> bookings;
     
+    // Chart data, kept between refreshes so counters can be updated in place
+    private final ObservableList<PieChart.Data> nationalitySlices = FXCollections.observableArrayList();
+    private final Map<String, PieChart.Data> slicesByNationality = new HashMap<>();
+    private final XYChart.Series<String, Number> attractionSeries = new XYChart.Series<>();
+    private final Map<String, XYChart.Data<String, Number>> barsByAttraction = new HashMap<>();
+    
     public void setCurrentUser(Admin user) {
         this.currentUser = user;
         initializeDashboard();
@@ -96,8 +111,10 @@ public class AdminDashboardController {
     
     @FXML
     private void initialize() {
+        DataAccessService.setProgressIndicator(progressIndicator);
         setupTableColumns();
         setupComboBoxes();
+        setupCharts();
         updateLanguage();
     }
     
@@ -107,7 +124,6 @@ public class AdminDashboardController {
         dashboardInfoLabel.setText(currentUser.getDashboardInfo());
         
         loadAllData();
-        updateAnalytics();
     }
     
     private void setupTableColumns() {
@@ -143,21 +159,25 @@ public class AdminDashboardController {
     }
     
     private void loadAllData() {
-        // Load guides
-        List<Guide> guideList = FileHandler.loadGuides();
-        guides = FXCollections.observableArrayList(guideList);
-        guidesTable.setItems(guides);
-        assignGuideCombo.setItems(guides);
-        
-        // Load attractions
-        List<Attraction> attractionList = FileHandler.loadAttractions();
-        attractions = FXCollections.observableArrayList(attractionList);
-        attractionsTable.setItems(attractions);
-        
-        // Load bookings
-        List<Booking> bookingList = FileHandler.loadBookings();
-        bookings = FXCollections.observableArrayList(bookingList);
-        bookingsTable.setItems(bookings);
+        loadAllData(() -> { });
+    }
+    
+    private void loadAllData(Runnable afterLoad) {
+        // Read everything on the data thread, then fill the tables on the FX thread
+        DataAccessService.run(DashboardData::load, data -> {
+            guides = FXCollections.observableArrayList(data.guides);
+            guidesTable.setItems(guides);
+            assignGuideCombo.setItems(guides);
+            
+            attractions = FXCollections.observableArrayList(data.attractions);
+            attractionsTable.setItems(attractions);
+            
+            bookings = FXCollections.observableArrayList(data.bookings);
+            bookingsTable.setItems(bookings);
+            
+            showAnalytics(data.analytics);
+            afterLoad.run();
+        }, "Failed to load dashboard data!");
     }
     
     // Guide Management Methods
@@ -165,26 +185,33 @@ public class AdminDashboardController {
     private void handleAddGuide() {
         if (!validateGuideFields()) return;
         
-        try {
-            List<String> languages = Arrays.asList(guideLanguagesField.getText().trim().split(",\\s*"));
-            Guide newGuide = new Guide(
-                guideUsernameField.getText().trim(),
-                guidePasswordField.getText().trim(),
-                guideNameField.getText().trim(),
-                guideEmailField.getText().trim(),
-                guidePhoneField.getText().trim(),
-                languages,
-                Integer.parseInt(guideExperienceField.getText().trim())
-            );
-            
-            FileHandler.saveGuide(newGuide);
+        List<String> languages = Arrays.asList(guideLanguagesField.getText().trim().split(",\\s*"));
+        Guide newGuide = new Guide(
+            guideUsernameField.getText().trim(),
+            guidePasswordField.getText().trim(),
+            guideNameField.getText().trim(),
+            guideEmailField.getText().trim(),
+            guidePhoneField.getText().trim(),
+            languages,
+            Integer.parseInt(guideExperienceField.getText().trim())
+        );
+        
+        // Check and add on the data thread so no other save can slip in between
+        DataAccessService.run(() -> {
+            if (UsernameIndex.isTaken(newGuide.getUsername())) {
+                return false;
+            }
+            GuideRepository.add(newGuide);
+            return true;
+        }, added -> {
+            if (!added) {
+                DialogUtils.showError("Error", "Username already exists! Please choose a different one.");
+                return;
+            }
             guides.add(newGuide);
             clearGuideFields();
             DialogUtils.showInfo("Success", "Guide added successfully!");
-            
-        } catch (Exception e) {
-            DialogUtils.showError("Error", "Failed to add guide!");
-        }
+        }, "Failed to add guide!");
     }
     
     @FXML
@@ -197,22 +224,31 @@ public class AdminDashboardController {
         
         if (!validateGuideFields()) return;
         
-        try {
-            selectedGuide.setFullName(guideNameField.getText().trim());
-            selectedGuide.setEmail(guideEmailField.getText().trim());
-            selectedGuide.setPhone(guidePhoneField.getText().trim());
-            selectedGuide.setExperienceYears(Integer.parseInt(guideExperienceField.getText().trim()));
-            
-            // Save all guides to file
-            List<Guide> allGuides = new ArrayList<>(guides);
-            FileHandler.saveAllGuides(allGuides);
-            
+        String username = selectedGuide.getUsername();
+        String fullName = guideNameField.getText().trim();
+        String email = guideEmailField.getText().trim();
+        String phone = guidePhoneField.getText().trim();
+        int experienceYears = Integer.parseInt(guideExperienceField.getText().trim());
+        
+        // The shared guide is edited on the data thread, under the guide store's lock
+        DataAccessService.run(() -> GuideRepository.update(username, guide -> {
+            guide.setFullName(fullName);
+            guide.setEmail(email);
+            guide.setPhone(phone);
+            guide.setExperienceYears(experienceYears);
+        }), updated -> {
+            if (updated == null) {
+                DialogUtils.showError("Error", "This guide no longer exists!");
+                loadAllData();
+                return;
+            }
+            // Shown from an older load: show the stored guide instead
+            if (updated != selectedGuide && guides.contains(selectedGuide)) {
+                guides.set(guides.indexOf(selectedGuide), updated);
+            }
             guidesTable.refresh();
             DialogUtils.showInfo("Success", "Guide updated successfully!");
-            
-        } catch (Exception e) {
-            DialogUtils.showError("Error", "Failed to update guide!");
-        }
+        }, "Failed to update guide!");
     }
     
     @FXML
@@ -227,10 +263,9 @@ public class AdminDashboardController {
             guides.remove(selectedGuide);
             
             // Save updated guides list to file
-            List<Guide> allGuides = new ArrayList<>(guides);
-            FileHandler.saveAllGuides(allGuides);
-            
-            DialogUtils.showInfo("Success", "Guide deleted successfully!");
+            DataAccessService.run(() -> GuideRepository.delete(selectedGuide.getUsername()),
+                () -> DialogUtils.showInfo("Success", "Guide deleted successfully!"),
+                "Failed to delete guide!");
         }
     }
     
@@ -239,23 +274,19 @@ public class AdminDashboardController {
     private void handleAddAttraction() {
         if (!validateAttractionFields()) return;
         
-        try {
-            Attraction newAttraction = new Attraction(
-                attractionNameField.getText().trim(),
-                attractionLocationField.getText().trim(),
-                attractionAltitudeCombo.getValue(),
-                attractionDifficultyCombo.getValue(),
-                Double.parseDouble(attractionPriceField.getText().trim())
-            );
-            
-            FileHandler.saveAttraction(newAttraction);
+        Attraction newAttraction = new Attraction(
+            attractionNameField.getText().trim(),
+            attractionLocationField.getText().trim(),
+            attractionAltitudeCombo.getValue(),
+            attractionDifficultyCombo.getValue(),
+            Double.parseDouble(attractionPriceField.getText().trim())
+        );
+        
+        DataAccessService.run(() -> AttractionRepository.add(newAttraction), () -> {
             attractions.add(newAttraction);
             clearAttractionFields();
             DialogUtils.showInfo("Success", "Attraction added successfully!");
-            
-        } catch (Exception e) {
-            DialogUtils.showError("Error", "Failed to add attraction!");
-        }
+        }, "Failed to add attraction!");
     }
     
     @FXML
@@ -268,19 +299,34 @@ public class AdminDashboardController {
         
         if (!validateAttractionFields()) return;
         
-        try {
-            selectedAttraction.setName(attractionNameField.getText().trim());
-            selectedAttraction.setLocation(attractionLocationField.getText().trim());
-            selectedAttraction.setAltitudeLevel(attractionAltitudeCombo.getValue());
-            selectedAttraction.setDifficulty(attractionDifficultyCombo.getValue());
-            selectedAttraction.setBasePrice(Double.parseDouble(attractionPriceField.getText().trim()));
-            
+        String oldName = selectedAttraction.getName();
+        String name = attractionNameField.getText().trim();
+        String location = attractionLocationField.getText().trim();
+        String altitude = attractionAltitudeCombo.getValue();
+        String difficulty = attractionDifficultyCombo.getValue();
+        double price = Double.parseDouble(attractionPriceField.getText().trim());
+        
+        // The shared attraction is edited on the data thread, under the attraction store's lock;
+        // a rename rewrites the bookings in the same step
+        DataAccessService.run(() -> AttractionRepository.update(oldName, attraction -> {
+            attraction.setName(name);
+            attraction.setLocation(location);
+            attraction.setAltitudeLevel(altitude);
+            attraction.setDifficulty(difficulty);
+            attraction.setBasePrice(price);
+        }), updated -> {
+            if (updated == null) {
+                DialogUtils.showError("Error", "This attraction no longer exists!");
+                loadAllData();
+                return;
+            }
+            // Shown from an older load: show the stored attraction instead
+            if (updated != selectedAttraction && attractions.contains(selectedAttraction)) {
+                attractions.set(attractions.indexOf(selectedAttraction), updated);
+            }
             attractionsTable.refresh();
             DialogUtils.showInfo("Success", "Attraction updated successfully!");
-            
-        } catch (Exception e) {
-            DialogUtils.showError("Error", "Failed to update attraction!");
-        }
+        }, "Failed to update attraction!");
     }
     
     @FXML
@@ -308,47 +354,26 @@ public class AdminDashboardController {
             return;
         }
         
-        // Remove from previous guide if assigned
-        if (!selectedBooking.getGuideUsername().isEmpty()) {
-            Guide previousGuide = guides.stream()
-                .filter(g -> g.getUsername().equals(selectedBooking.getGuideUsername()))
-                .findFirst()
-                .orElse(null);
-            if (previousGuide != null) {
-                previousGuide.removeBooking(selectedBooking);
-            }
-        }
-        
-        // Assign new guide
-        selectedBooking.setGuideUsername(selectedGuide.getUsername());
-        selectedGuide.assignBooking(selectedBooking);
-        
-        // Save all changes to files
-        try {
-            // Convert ObservableList to regular List for saving
-            List<Booking> bookingList = new ArrayList<>(bookings);
-            List<Guide> guideList = new ArrayList<>(guides);
-            
-            FileHandler.saveAllBookings(bookingList);
-            FileHandler.saveAllGuides(guideList);
-            
-            System.out.println("Guide " + selectedGuide.getUsername() + " assigned to booking " + selectedBooking.getBookingId());
-            System.out.println("Guide earnings updated: $" + selectedGuide.getTotalEarnings());
-        } catch (Exception e) {
-            System.err.println("Error saving guide assignment: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        // Refresh UI
-        bookingsTable.refresh();
-        guidesTable.refresh();
-        updateAnalytics();
-        
-        double commission = selectedGuide.calculateCommission(selectedBooking.getTotalPrice());
-        DialogUtils.showInfo("Success", "Guide assigned successfully!\n" +
-            "Guide: " + selectedGuide.getFullName() + "\n" +
-            "Commission: $" + String.format("%.2f", commission) + " (30%)\n" +
-            "Total Earnings: $" + String.format("%.2f", selectedGuide.getTotalEarnings()));
+        // The service saves a copy and moves the booking between the guides' lists and earnings;
+        // it rejects the change if someone else saved the booking first
+        List<Guide> shownGuides = new ArrayList<>(guides);
+        BookingChanges.save(() -> BookingService.assignGuide(selectedBooking, selectedGuide.getUsername()),
+            saved -> refreshEarnings(shownGuides),
+            saved -> {
+                replaceBooking(selectedBooking, saved);
+                
+                LOG.info("Guide " + selectedGuide.getUsername() + " assigned to booking " + saved.getBookingId());
+                guidesTable.refresh();
+                updateAnalytics();
+                
+                double commission = selectedGuide.calculateCommission(saved.getTotalPrice());
+                DialogUtils.showInfo("Success", "Guide assigned successfully!\n" +
+                    "Guide: " + selectedGuide.getFullName() + "\n" +
+                    "Commission: $" + String.format("%.2f", commission) + " (30%)\n" +
+                    "Total Earnings: $" + String.format("%.2f", selectedGuide.getTotalEarnings()));
+            },
+            this::loadAllData,
+            "Error saving guide assignment!");
     }
     
     @FXML
@@ -361,48 +386,27 @@ public class AdminDashboardController {
             return;
         }
         
-        String oldStatus = selectedBooking.getStatus();
-        selectedBooking.setStatus(newStatus);
-        
-        // Update guide earnings if status changed to/from confirmed/completed
-        if (!selectedBooking.getGuideUsername().isEmpty()) {
-            Guide assignedGuide = guides.stream()
-                .filter(g -> g.getUsername().equals(selectedBooking.getGuideUsername()))
-                .findFirst()
-                .orElse(null);
+        // The booking store works out the guide's earnings for the new status
+        List<Guide> shownGuides = new ArrayList<>(guides);
+        BookingChanges.save(() -> BookingService.changeStatus(selectedBooking, newStatus),
+            saved -> refreshEarnings(shownGuides),
+            saved -> {
+                replaceBooking(selectedBooking, saved);
+                guidesTable.refresh();
+                updateAnalytics();
                 
-            if (assignedGuide != null) {
-                double commission = selectedBooking.getTotalPrice() * 0.30;
-                
-                // If changing from confirmed/completed to cancelled, remove earnings
-                if (("Confirmed".equals(oldStatus) || "Completed".equals(oldStatus)) && 
-                    "Cancelled".equals(newStatus)) {
-                    assignedGuide.setTotalEarnings(assignedGuide.getTotalEarnings() - commission);
-                }
-                // If changing from cancelled to confirmed/completed, add earnings
-                else if ("Cancelled".equals(oldStatus) && 
-                         ("Confirmed".equals(newStatus) || "Completed".equals(newStatus))) {
-                    assignedGuide.setTotalEarnings(assignedGuide.getTotalEarnings() + commission);
-                }
-            }
-        }
-        
-        // Save changes to files
-        try {
-            List<Booking> bookingList = new ArrayList<>(bookings);
-            List<Guide> guideList = new ArrayList<>(guides);
-            
-            FileHandler.saveAllBookings(bookingList);
-            FileHandler.saveAllGuides(guideList);
-        } catch (Exception e) {
-            System.err.println("Error saving booking status update: " + e.getMessage());
+                DialogUtils.showInfo("Success", "Booking status updated successfully!");
+            },
+            this::loadAllData,
+            "Error saving booking status update!");
+    }
+    
+    // Show the saved copy in place of the booking it was made from
+    private void replaceBooking(Booking original, Booking saved) {
+        int index = bookings.indexOf(original);
+        if (index >= 0) {
+            bookings.set(index, saved);
         }
-        
-        bookingsTable.refresh();
-        guidesTable.refresh();
-        updateAnalytics();
-        
-        DialogUtils.showInfo("Success", "Booking status updated successfully!");
     }
     
     @FXML
@@ -414,98 +418,99 @@ public class AdminDashboardController {
         }
         
         if (DialogUtils.showConfirmation("Confirm Deletion", "Are you sure you want to delete this booking?")) {
-            // Remove guide earnings if assigned
-            if (!selectedBooking.getGuideUsername().isEmpty()) {
-                Guide assignedGuide = guides.stream()
-                    .filter(g -> g.getUsername().equals(selectedBooking.getGuideUsername()))
-                    .findFirst()
-                    .orElse(null);
-                if (assignedGuide != null) {
-                    assignedGuide.removeBooking(selectedBooking);
-                }
-            }
-            
             bookings.remove(selectedBooking);
             
-            // Save changes to files
-            try {
-                List<Booking> bookingList = new ArrayList<>(bookings);
-                List<Guide> guideList = new ArrayList<>(guides);
-                
-                FileHandler.saveAllBookings(bookingList);
-                FileHandler.saveAllGuides(guideList);
-            } catch (Exception e) {
-                System.err.println("Error saving booking deletion: " + e.getMessage());
-            }
-            
-            updateAnalytics();
-            DialogUtils.showInfo("Success", "Booking deleted successfully!");
+            // Save changes to files; the service also takes the booking off its guide's earnings
+            List<Guide> shownGuides = new ArrayList<>(guides);
+            DataAccessService.run(() -> {
+                BookingService.delete(selectedBooking.getBookingId());
+                refreshEarnings(shownGuides);
+            }, () -> {
+                guidesTable.refresh();
+                updateAnalytics();
+                DialogUtils.showInfo("Success", "Booking deleted successfully!");
+            }, "Error saving booking deletion!");
         }
     }
     
+    // Show the booking store's running totals, also on guides from an older load
+    private void refreshEarnings(List<Guide> changedGuides) {
+        GuideRepository.refreshEarnings(changedGuides);
+    }
+    
     // Analytics Methods
+    private void setupCharts() {
+        nationalityChart.setData(nationalitySlices);
+        nationalityChart.setTitle("Tourist Nationality Distribution");
+        
+        attractionSeries.setName("Bookings");
+        popularAttractionsChart.getData().add(attractionSeries);
+        popularAttractionsChart.setTitle("Most Popular Attractions");
+    }
+    
+    // The repositories keep running counters, so this is a cheap read after every change
     private void updateAnalytics() {
-        updateNationalityChart();
-        updatePopularAttractionsChart();
-        updateStatistics();
+        DataAccessService.run(AnalyticsService::snapshot, this::showAnalytics, "Failed to load analytics!");
     }
     
-    private void updateNationalityChart() {
-        List<Tourist> tourists = FileHandler.loadTourists();
-        Map<String, Long> nationalityCount = tourists.stream()
-            .collect(Collectors.groupingBy(Tourist::getNationality, Collectors.counting()));
-        
-        ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
-        nationalityCount.forEach((nationality, count) -> 
-            pieChartData.add(new PieChart.Data(nationality, count)));
-        
-        nationalityChart.setData(pieChartData);
-        nationalityChart.setTitle("Tourist Nationality Distribution");
+    private void showAnalytics(AnalyticsService.Snapshot analytics) {
+        updateNationalityChart(analytics.getTouristsByNationality());
+        updatePopularAttractionsChart(analytics.getBookingsByAttraction());
+        updateStatistics(analytics);
     }
     
-    private void updatePopularAttractionsChart() {
-        Map<String, Long> attractionCount = bookings.stream()
-            .collect(Collectors.groupingBy(
-                booking -> booking.getAttraction().getName(), 
-                Collectors.counting()));
-        
-        CategoryAxis xAxis = (CategoryAxis) popularAttractionsChart.getXAxis();
-        NumberAxis yAxis = (NumberAxis) popularAttractionsChart.getYAxis();
-        
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        series.setName("Bookings");
-        
-        attractionCount.forEach((attraction, count) -> 
-            series.getData().add(new XYChart.Data<>(attraction, count)));
+    // Chart entries are updated in place; only new or vanished keys change the chart's list
+    private void updateNationalityChart(Map<String, Integer> nationalityCount) {
+        Iterator<Map.Entry<String, PieChart.Data>> slices = slicesByNationality.entrySet().iterator();
+        while (slices.hasNext()) {
+            Map.Entry<String, PieChart.Data> slice = slices.next();
+            if (!nationalityCount.containsKey(slice.getKey())) {
+                nationalitySlices.remove(slice.getValue());
+                slices.remove();
+            }
+        }
         
-        popularAttractionsChart.getData().clear();
-        popularAttractionsChart.getData().add(series);
-        popularAttractionsChart.setTitle("Most Popular Attractions");
+        nationalityCount.forEach((nationality, count) -> {
+            PieChart.Data slice = slicesByNationality.get(nationality);
+            if (slice == null) {
+                slice = new PieChart.Data(nationality, count);
+                slicesByNationality.put(nationality, slice);
+                nationalitySlices.add(slice);
+            } else if (slice.getPieValue() != count) {
+                slice.setPieValue(count);
+            }
+        });
     }
     
-    private void updateStatistics() {
-        double totalRevenue = 0.0;
-        double totalGuideCommissions = 0.0;
-        
-        for (Booking booking : bookings) {
-            if ("Confirmed".equals(booking.getStatus()) || "Completed".equals(booking.getStatus())) {
-                totalRevenue += booking.getTotalPrice();
-                
-                // Subtract guide commission if assigned
-                if (!booking.getGuideUsername().isEmpty()) {
-                    totalGuideCommissions += booking.getTotalPrice() * 0.30;
-                }
+    private void updatePopularAttractionsChart(Map<String, Integer> attractionCount) {
+        Iterator<Map.Entry<String, XYChart.Data<String, Number>>> bars = barsByAttraction.entrySet().iterator();
+        while (bars.hasNext()) {
+            Map.Entry<String, XYChart.Data<String, Number>> bar = bars.next();
+            if (!attractionCount.containsKey(bar.getKey())) {
+                attractionSeries.getData().remove(bar.getValue());
+                bars.remove();
             }
         }
         
-        double netRevenue = totalRevenue - totalGuideCommissions;
-        
-        totalRevenueLabel.setText("Net Revenue: $" + String.format("%.2f", netRevenue) + 
-            " (Total: $" + String.format("%.2f", totalRevenue) + 
-            ", Guide Commissions: $" + String.format("%.2f", totalGuideCommissions) + ")");
-        totalBookingsLabel.setText("Total Bookings: " + bookings.size());
-        totalTouristsLabel.setText("Total Tourists: " + FileHandler.loadTourists().size());
-        totalGuidesLabel.setText("Total Guides: " + guides.size());
+        attractionCount.forEach((attraction, count) -> {
+            XYChart.Data<String, Number> bar = barsByAttraction.get(attraction);
+            if (bar == null) {
+                bar = new XYChart.Data<>(attraction, count);
+                barsByAttraction.put(attraction, bar);
+                attractionSeries.getData().add(bar);
+            } else {
+                bar.setYValue(count);
+            }
+        });
+    }
+    
+    private void updateStatistics(AnalyticsService.Snapshot analytics) {
+        totalRevenueLabel.setText("Net Revenue: $" + String.format("%.2f", analytics.getNetRevenue()) + 
+            " (Total: $" + String.format("%.2f", analytics.getGrossRevenue()) + 
+            ", Guide Commissions: $" + String.format("%.2f", analytics.getGuideCommissions()) + ")");
+        totalBookingsLabel.setText("Total Bookings: " + analytics.getTotalBookings());
+        totalTouristsLabel.setText("Total Tourists: " + analytics.getTotalTourists());
+        totalGuidesLabel.setText("Total Guides: " + analytics.getTotalGuides());
     }
     
     // Validation Methods
@@ -574,9 +579,7 @@ private boolean validateAttractionFields() {
     
     @FXML
     private void handleRefreshData() {
-        loadAllData();
-        updateAnalytics();
-        DialogUtils.showInfo("Success", "Data refreshed successfully!");
+        loadAllData(() -> DialogUtils.showInfo("Success", "Data refreshed successfully!"));
     }
     
     @FXML
@@ -588,6 +591,9 @@ private boolean validateAttractionFields() {
     
     @FXML
     private void handleLogout() {
+        // Write the updated guide earnings to guides.txt in the background
+        DataAccessService.submit(GuideRepository::flushEarnings);
+        
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
             Scene scene = new Scene(loader.load());
@@ -596,7 +602,7 @@ private boolean validateAttractionFields() {
             Main.switchScene(scene, "Journey - Nepal Tourism System");
         
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Failed to open the login screen", e);
         }
     }
     
@@ -618,4 +624,16 @@ private boolean validateAttractionFields() {
     private void showAlert(String title, String message) {
         DialogUtils.showInfo(title, message);
     }
+    
+    // Everything the dashboard shows, read in one background task
+    private static class DashboardData {
+        private final List<Guide> guides = GuideRepository.findAll();
+        private final List<Attraction> attractions = AttractionRepository.findAll();
+        private final List<Booking> bookings = BookingRepository.findAll();
+        private final AnalyticsService.Snapshot analytics = AnalyticsService.snapshot();
+        
+        private static DashboardData load() {
+            return new DashboardData();
+        }
+    }
 }
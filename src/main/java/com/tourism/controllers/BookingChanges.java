@@ -0,0 +1,86 @@
+package com.tourism.controllers;
+
+import com.tourism.models.Booking;
+import com.tourism.services.BookingResult;
+import com.tourism.services.BookingService;
+import com.tourism.services.DataAccessService;
+import com.tourism.utils.DialogUtils;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Runs a BookingService change for a dashboard and turns its result into dialogs.
+// If someone else saved the booking since this screen loaded it, the user sees the latest
+// state and can apply the same change on top of it (BookingService.applyToLatest) or keep
+// the other version.
+final class BookingChanges {
+    private BookingChanges() {
+    }
+
+    // The operation and afterSave run on the data thread, afterSave only once the change is
+    // stored; onSaved runs on the FX thread after that. onAbandoned runs when the booking
+    // could not be saved as shown (deleted, or no seats left), so the screen can reload.
+    static void save(Supplier<BookingResult> operation, Consumer<Booking> afterSave,
+                     Consumer<Booking> onSaved, Runnable onAbandoned, String errorMessage) {
+        DataAccessService.run(() -> afterSaved(operation.get(), afterSave),
+            result -> show(result, afterSave, onSaved, onAbandoned, errorMessage), errorMessage);
+    }
+
+    private static BookingResult afterSaved(BookingResult result, Consumer<Booking> afterSave) {
+        if (result.isSaved()) {
+            afterSave.accept(result.getBooking());
+        }
+        return result;
+    }
+
+    private static void show(BookingResult result, Consumer<Booking> afterSave, Consumer<Booking> onSaved,
+                             Runnable onAbandoned, String errorMessage) {
+        switch (result.getStatus()) {
+            case SAVED:
+                onSaved.accept(result.getBooking());
+                break;
+            case CONFLICT:
+                resolveConflict(result, afterSave, onSaved, onAbandoned, errorMessage);
+                break;
+            case UNCHANGED:
+                DialogUtils.showInfo("Info", result.getMessage());
+                break;
+            case INVALID:
+                DialogUtils.showError("Error", result.getMessage());
+                break;
+            case NO_SEATS:
+                DialogUtils.showError("Fully Booked", result.getMessage());
+                onAbandoned.run();
+                break;
+            default:
+                DialogUtils.showError("Booking Changed", result.getMessage());
+                onAbandoned.run();
+                break;
+        }
+    }
+
+    private static void resolveConflict(BookingResult conflict, Consumer<Booking> afterSave,
+                                        Consumer<Booking> onSaved, Runnable onAbandoned, String errorMessage) {
+        Booking latest = conflict.getBooking();
+        String guide = latest.getGuideUsername().isEmpty() ? "Not Assigned" : latest.getGuideUsername();
+        boolean merge = DialogUtils.showConfirmation("Booking Changed",
+            conflict.getMessage() + "\n\n" +
+            "Attraction: " + latest.getAttraction().getName() + "\n" +
+            "Trek Date: " + latest.getTrekDate() + "\n" +
+            "Guide: " + guide + "\n" +
+            "Status: " + latest.getStatus() + "\n\n" +
+            "Apply your change to this latest version?");
+        if (!merge) {
+            onAbandoned.run();
+            return;
+        }
+
+        // The change is checked again against the latest version; if it no longer applies the
+        // screen still shows the old one, so it reloads. A further conflict comes back here.
+        DataAccessService.run(() -> afterSaved(BookingService.applyToLatest(conflict), afterSave), result -> {
+            show(result, afterSave, onSaved, onAbandoned, errorMessage);
+            if (result.getStatus() == BookingResult.Status.INVALID || result.getStatus() == BookingResult.Status.UNCHANGED) {
+                onAbandoned.run();
+            }
+        }, errorMessage);
+    }
+}
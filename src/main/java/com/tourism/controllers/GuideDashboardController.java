@@ -2,9 +2,12 @@ package com.tourism.controllers;
 
 import com.tourism.Main;
 import com.tourism.models.*;
+import com.tourism.repository.BookingRepository;
+import com.tourism.repository.GuideRepository;
+import com.tourism.services.DataAccessService;
 import com.tourism.utils.DialogUtils;
-import com.tourism.utils.FileHandler;
 import com.tourism.utils.LanguageManager;
+import com.tourism.utils.Logger;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -16,11 +19,14 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import java.net.URL;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
 
 public class GuideDashboardController implements Initializable {
+    private static final Logger LOG = Logger.get(GuideDashboardController.class);
+    
     @FXML private Label welcomeLabel;
     @FXML private Label dashboardInfoLabel;
     @FXML private Label earningsLabel;
@@ -36,13 +42,14 @@ public class GuideDashboardController implements Initializable {
     @FXML private Button languageToggleButton;
     @FXML private Button logoutButton;
     @FXML private Button refreshButton;
+    @FXML private ProgressIndicator progressIndicator;
     
     private Guide currentUser;
     private ObservableList<Booking> assignedBookings;
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        System.out.println("GuideDashboardController initialize() called");
+        DataAccessService.setProgressIndicator(progressIndicator);
         setupTableColumns();
         loadImportantUpdates();
         updateLanguage();
@@ -66,23 +73,21 @@ public class GuideDashboardController implements Initializable {
     }
     
     public void setCurrentUser(Guide user) {
-        System.out.println("Setting current user: " + user.getFullName());
         this.currentUser = user;
         initializeDashboard();
     }
     
     private void initializeDashboard() {
+        initializeDashboard(() -> { });
+    }
+    
+    private void initializeDashboard(Runnable afterLoad) {
         try {
             if (currentUser == null) {
-                System.err.println("Current user is null!");
+                LOG.error("Guide dashboard opened without a user");
                 return;
             }
         
-            System.out.println("Initializing guide dashboard for: " + currentUser.getFullName());
-        
-            // First load the latest guide data from file and recalculate earnings
-            recalculateGuideEarningsAndBookings();
-        
             // Display user info using polymorphism
             if (welcomeLabel != null) {
                 welcomeLabel.setText(LanguageManager.getText("Welcome") + ", " + currentUser.getFullName() + "!");
@@ -92,11 +97,6 @@ public class GuideDashboardController implements Initializable {
                 dashboardInfoLabel.setText(currentUser.getDashboardInfo());
             }
         
-            // Display specific guide information
-            if (earningsLabel != null) {
-                earningsLabel.setText("Total Earnings: $" + String.format("%.2f", currentUser.getTotalEarnings()));
-            }
-        
             if (languagesLabel != null) {
                 languagesLabel.setText("Languages: " + currentUser.getLanguagesString());
             }
@@ -105,73 +105,41 @@ public class GuideDashboardController implements Initializable {
                 experienceLabel.setText("Experience: " + currentUser.getExperienceYears() + " years");
             }
         
-            System.out.println("Guide dashboard initialized successfully");
-            System.out.println("Final earnings display: $" + currentUser.getTotalEarnings());
-            System.out.println("Assigned bookings count: " + (assignedBookings != null ? assignedBookings.size() : 0));
+            // Load the guide's bookings in the background and recalculate earnings
+            recalculateGuideEarningsAndBookings(afterLoad);
         
         } catch (Exception e) {
-            System.err.println("Error initializing guide dashboard: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error initializing guide dashboard", e);
         }
     }
     
-    private void recalculateGuideEarningsAndBookings() {
-        try {
-            // Reset earnings to 0
-            currentUser.setTotalEarnings(0.0);
-            
-            // Load all bookings and calculate earnings from confirmed/completed bookings only
-            List<Booking> allBookings = FileHandler.loadBookings();
-            double totalEarnings = 0.0;
-            int assignedBookingCount = 0;
-            
+    private void recalculateGuideEarningsAndBookings(Runnable afterLoad) {
+        // Earnings and assignments are kept up to date by the booking store,
+        // so opening the dashboard only reads this guide's active bookings
+        DataAccessService.run(() -> {
+            List<Booking> activeBookings = BookingRepository.findActiveByGuide(currentUser.getUsername());
+            GuideRepository.refreshEarnings(Collections.singletonList(currentUser));
+            return activeBookings;
+        }, activeBookings -> {
             // CLEAR existing bookings to prevent duplicates
             if (assignedBookings == null) {
                 assignedBookings = FXCollections.observableArrayList();
-            } else {
-                assignedBookings.clear();
             }
-            
-            for (Booking booking : allBookings) {
-                if (booking.getGuideUsername().equals(currentUser.getUsername())) {
-                    // Only add to assigned bookings if not cancelled
-                    if (!"Cancelled".equals(booking.getStatus())) {
-                        assignedBookings.add(booking);
-                        assignedBookingCount++;
-                    }
-                    
-                    // Only count earnings from confirmed/completed bookings
-                    if ("Confirmed".equals(booking.getStatus()) || "Completed".equals(booking.getStatus())) {
-                        double commission = booking.getTotalPrice() * 0.30; // 30% commission
-                        totalEarnings += commission;
-                    }
-                }
-            }
-            
-            currentUser.setTotalEarnings(totalEarnings);
+            assignedBookings.setAll(activeBookings);
             
             // Update table
             if (upcomingTreksTable != null) {
                 upcomingTreksTable.setItems(assignedBookings);
             }
             
-            // Save updated guide data
-            List<Guide> allGuides = FileHandler.loadGuides();
-            for (int i = 0; i < allGuides.size(); i++) {
-                if (allGuides.get(i).getUsername().equals(currentUser.getUsername())) {
-                    allGuides.get(i).setTotalEarnings(totalEarnings);
-                    break;
-                }
+            if (earningsLabel != null) {
+                earningsLabel.setText("Total Earnings: $" + String.format("%.2f", currentUser.getTotalEarnings()));
             }
-            FileHandler.saveAllGuides(allGuides);
             
-            System.out.println("Recalculated guide earnings: $" + totalEarnings);
-            System.out.println("Active assigned bookings: " + assignedBookingCount);
-            
-        } catch (Exception e) {
-            System.err.println("Error recalculating guide earnings: " + e.getMessage());
-            e.printStackTrace();
-        }
+            LOG.debug("Guide " + currentUser.getUsername() + " has " + assignedBookings.size() +
+                " active bookings, earnings $" + currentUser.getTotalEarnings());
+            afterLoad.run();
+        }, "Error recalculating guide earnings");
     }
     
     private void setupTableColumns() {
@@ -202,7 +170,7 @@ public class GuideDashboardController implements Initializable {
                 });
             }
         } catch (Exception e) {
-            System.err.println("Error setting up table columns: " + e.getMessage());
+            LOG.error("Error setting up table columns", e);
         }
     }
     
@@ -234,25 +202,21 @@ public class GuideDashboardController implements Initializable {
                 updatesTextArea.setEditable(false);
             }
         } catch (Exception e) {
-            System.err.println("Error loading updates: " + e.getMessage());
+            LOG.error("Error loading updates", e);
         }
     }
     
     @FXML
     private void handleRefresh() {
         try {
-            System.out.println("Refreshing guide dashboard...");
-            
             // Reload all data from files and recalculate earnings
-            initializeDashboard();
             loadImportantUpdates();
-        
-            DialogUtils.showInfo("Success", "Dashboard refreshed successfully!\n" +
+            initializeDashboard(() -> DialogUtils.showInfo("Success", "Dashboard refreshed successfully!\n" +
                 "Earnings: $" + String.format("%.2f", currentUser.getTotalEarnings()) + "\n" +
-                "Active Assigned Bookings: " + (assignedBookings != null ? assignedBookings.size() : 0));
+                "Active Assigned Bookings: " + (assignedBookings != null ? assignedBookings.size() : 0)));
         
         } catch (Exception e) {
-            System.err.println("Error refreshing dashboard: " + e.getMessage());
+            LOG.error("Error refreshing dashboard", e);
             DialogUtils.showError("Error", "Failed to refresh dashboard");
         }
     }
@@ -264,12 +228,15 @@ public class GuideDashboardController implements Initializable {
             updateLanguage();
             initializeDashboard(); // Refresh dashboard with new language
         } catch (Exception e) {
-            System.err.println("Error toggling language: " + e.getMessage());
+            LOG.error("Error toggling language", e);
         }
     }
     
     @FXML
     private void handleLogout() {
+        // Write the updated earnings to guides.txt in the background
+        DataAccessService.submit(GuideRepository::flushEarnings);
+        
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
             Scene scene = new Scene(loader.load());
@@ -278,8 +245,7 @@ public class GuideDashboardController implements Initializable {
             Main.switchScene(scene, "Journey - Nepal Tourism System");
             
         } catch (Exception e) {
-            System.err.println("Error during logout: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error during logout", e);
         }
     }
     
@@ -295,7 +261,7 @@ public class GuideDashboardController implements Initializable {
                 languageToggleButton.setText(LanguageManager.getCurrentLanguage());
             }
         } catch (Exception e) {
-            System.err.println("Error updating language: " + e.getMessage());
+            LOG.error("Error updating language", e);
         }
     }
 }
@@ -2,18 +2,21 @@ package com.tourism.controllers;
 
 import com.tourism.Main;
 import com.tourism.models.*;
-import com.tourism.utils.FileHandler;
+import com.tourism.services.AuthenticationService;
+import com.tourism.services.DataAccessService;
 import com.tourism.utils.LanguageManager;
 import com.tourism.utils.DialogUtils;
+import com.tourism.utils.Logger;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
-import java.util.List;
 
 public class LoginController {
+    private static final Logger LOG = Logger.get(LoginController.class);
+    
     @FXML private TextField usernameField;
     @FXML private PasswordField passwordField;
     @FXML private Button loginButton;
@@ -39,32 +42,14 @@ public class LoginController {
             return;
         }
         
-        // Check admin login (hardcoded)
-        if ("Prapanna".equals(username) && "123".equals(password)) {
-            Admin admin = new Admin(username, password, "Prapanna Admin", "admin@tourism.com", "+977-9999999");
-            openDashboard(admin);
-            return;
-        }
-        
-        // Check tourist login
-        List<Tourist> tourists = FileHandler.loadTourists();
-        for (Tourist tourist : tourists) {
-            if (tourist.getUsername().equals(username) && tourist.getPassword().equals(password)) {
-                openDashboard(tourist);
-                return;
-            }
-        }
-        
-        // Check guide login
-        List<Guide> guides = FileHandler.loadGuides();
-        for (Guide guide : guides) {
-            if (guide.getUsername().equals(username) && guide.getPassword().equals(password)) {
-                openDashboard(guide);
-                return;
+        // The stores may still be loading, so look the user up on the data thread
+        DataAccessService.run(() -> AuthenticationService.authenticate(username, password), user -> {
+            if (user != null) {
+                openDashboard(user);
+            } else {
+                DialogUtils.showError("Error", "Invalid username or password!");
             }
-        }
-        
-        DialogUtils.showError("Error", "Invalid username or password!");
+        }, "Failed to log in");
     }
     
     private void openDashboard(Person user) {
@@ -72,7 +57,7 @@ public class LoginController {
             String fxmlFile = "";
             String title = "";
         
-            System.out.println("Opening dashboard for user: " + user.getFullName() + " (Role: " + user.getRole() + ")");
+            LOG.info("Opening dashboard for user: " + user.getUsername() + " (Role: " + user.getRole() + ")");
         
             // Polymorphism in action - using the same method for different user types
             switch (user.getRole()) {
@@ -93,11 +78,11 @@ public class LoginController {
                     return;
             }
         
-            System.out.println("Loading FXML file: " + fxmlFile);
+            LOG.debug("Loading FXML file: " + fxmlFile);
         
             // Check if resource exists
             if (getClass().getResource(fxmlFile) == null) {
-                System.err.println("FXML file not found: " + fxmlFile);
+                LOG.error("FXML file not found: " + fxmlFile);
                 DialogUtils.showError("Error", "Dashboard file not found: " + fxmlFile);
                 return;
             }
@@ -107,37 +92,27 @@ public class LoginController {
         
             // Get the controller and set user data
             Object controller = loader.getController();
-            System.out.println("Controller loaded: " + (controller != null ? controller.getClass().getSimpleName() : "null"));
         
             if (controller != null) {
                 if (user instanceof Tourist && controller instanceof TouristDashboardController) {
                     ((TouristDashboardController) controller).setCurrentUser((Tourist) user);
                 } else if (user instanceof Guide && controller instanceof GuideDashboardController) {
-                    System.out.println("Setting Guide user in GuideDashboardController");
                     ((GuideDashboardController) controller).setCurrentUser((Guide) user);
                 } else if (user instanceof Admin && controller instanceof AdminDashboardController) {
                     ((AdminDashboardController) controller).setCurrentUser((Admin) user);
                 } else {
-                    System.err.println("Controller type mismatch: " + controller.getClass() + " for user " + user.getClass());
+                    LOG.error("Controller type mismatch: " + controller.getClass() + " for user " + user.getClass());
                 }
             } else {
-                System.err.println("Controller is null for " + fxmlFile);
+                LOG.error("Controller is null for " + fxmlFile);
             }
         
             // Use the new scene switching method to maintain full screen
             Main.switchScene(scene, title);
         
-            System.out.println("Dashboard loaded successfully for " + user.getRole());
-        
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Failed to open the " + user.getRole() + " dashboard for " + user.getUsername(), e);
             DialogUtils.showError("Error", "Failed to open dashboard: " + e.getMessage());
-            System.err.println("Dashboard loading error details:");
-            System.err.println("User: " + user.getClass().getSimpleName());
-            System.err.println("Role: " + user.getRole());
-            System.err.println("Error: " + e.getMessage());
-            System.err.println("Stack trace:");
-            e.printStackTrace();
         }
     }
     
@@ -151,7 +126,7 @@ public class LoginController {
             Main.switchScene(scene, "Journey - Create Account");
             
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Failed to open the registration form", e);
             DialogUtils.showError("Error", "Failed to open registration form!");
         }
     }
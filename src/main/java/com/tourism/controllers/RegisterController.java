@@ -2,9 +2,13 @@ package com.tourism.controllers;
 
 import com.tourism.Main;
 import com.tourism.models.*;
+import com.tourism.repository.GuideRepository;
+import com.tourism.repository.TouristRepository;
+import com.tourism.repository.UsernameIndex;
+import com.tourism.services.DataAccessService;
 import com.tourism.utils.DialogUtils;
-import com.tourism.utils.FileHandler;
 import com.tourism.utils.LanguageManager;
+import com.tourism.utils.Logger;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -15,6 +19,8 @@ import java.util.Arrays;
 import java.util.List;
 
 public class RegisterController {
+    private static final Logger LOG = Logger.get(RegisterController.class);
+    
     @FXML private TextField usernameField;
     @FXML private PasswordField passwordField;
     @FXML private TextField fullNameField;
@@ -97,38 +103,48 @@ public class RegisterController {
         String phone = phoneField.getText().trim();
         String role = roleComboBox.getValue();
         
-        // Check if username already exists
-        if (isUsernameExists(username)) {
-            DialogUtils.showError("Error", "Username already exists! Please choose a different one.");
-            return;
-        }
-        
+        Person newUser;
         try {
             if ("Tourist".equals(role)) {
                 String nationality = nationalityField.getText().trim();
-                Tourist tourist = new Tourist(username, password, fullName, email, phone, nationality);
-                FileHandler.saveTourist(tourist);
+                newUser = new Tourist(username, password, fullName, email, phone, nationality);
                 
-            } else if ("Guide".equals(role)) {
+            } else {
                 String languagesStr = languagesField.getText().trim();
                 int experience = Integer.parseInt(experienceField.getText().trim());
                 
                 // Parse languages - handle comma separation properly
                 List<String> languages = Arrays.asList(languagesStr.split("\\s*,\\s*"));
                 
-                Guide guide = new Guide(username, password, fullName, email, phone, languages, experience);
-                FileHandler.saveGuide(guide);
+                newUser = new Guide(username, password, fullName, email, phone, languages, experience);
             }
-            
-            DialogUtils.showInfo("Success", "Registration successful! You can now login with your credentials.");
-            handleBack();
-            
         } catch (NumberFormatException e) {
             DialogUtils.showError("Error", "Please enter a valid number for experience years!");
-        } catch (Exception e) {
-            e.printStackTrace();
-            DialogUtils.showError("Error", "Registration failed! Please check all fields and try again.");
+            return;
         }
+        
+        // The username check and the save run on the data thread
+        DataAccessService.run(() -> register(newUser), registered -> {
+            if (registered) {
+                DialogUtils.showInfo("Success", "Registration successful! You can now login with your credentials.");
+                handleBack();
+            } else {
+                DialogUtils.showError("Error", "Username already exists! Please choose a different one.");
+            }
+        }, "Registration failed! Please check all fields and try again.");
+    }
+    
+    private boolean register(Person newUser) {
+        // Check if username already exists
+        if (isUsernameExists(newUser.getUsername())) {
+            return false;
+        }
+        if (newUser instanceof Tourist) {
+            TouristRepository.add((Tourist) newUser);
+        } else {
+            GuideRepository.add((Guide) newUser);
+        }
+        return true;
     }
     
     private boolean validateFields() {
@@ -200,20 +216,9 @@ public class RegisterController {
     }
     
     private boolean isUsernameExists(String username) {
-        // Check tourists
-        List<Tourist> tourists = FileHandler.loadTourists();
-        for (Tourist tourist : tourists) {
-            if (tourist.getUsername().equals(username)) {
-                return true;
-            }
-        }
-        
-        // Check guides
-        List<Guide> guides = FileHandler.loadGuides();
-        for (Guide guide : guides) {
-            if (guide.getUsername().equals(username)) {
-                return true;
-            }
+        // Check tourists and guides
+        if (UsernameIndex.isTaken(username)) {
+            return true;
         }
         
         // Check admin username
@@ -234,7 +239,7 @@ public class RegisterController {
             Main.switchScene(scene, "Journey - Nepal Tourism System");
             
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Failed to open the login screen", e);
         }
     }
     
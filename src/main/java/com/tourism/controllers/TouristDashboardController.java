@@ -2,9 +2,15 @@ package com.tourism.controllers;
 
 import com.tourism.Main;
 import com.tourism.models.*;
+import com.tourism.repository.AttractionRepository;
+import com.tourism.repository.BookingRepository;
+import com.tourism.repository.TouristRepository;
+import com.tourism.services.BookingResult;
+import com.tourism.services.BookingService;
+import com.tourism.services.DataAccessService;
 import com.tourism.utils.DialogUtils;
-import com.tourism.utils.FileHandler;
 import com.tourism.utils.LanguageManager;
+import com.tourism.utils.Logger;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -20,6 +26,11 @@ import java.time.Month;
 import java.util.List;
 
 public class TouristDashboardController {
+    private static final Logger LOG = Logger.get(TouristDashboardController.class);
+    
+    // How far ahead to look for another date when the chosen one is full
+    private static final int DATE_SEARCH_DAYS = 60;
+    
     @FXML private Label welcomeLabel;
     @FXML private Label dashboardInfoLabel;
     @FXML private ComboBox<Attraction> attractionComboBox;
@@ -36,10 +47,11 @@ public class TouristDashboardController {
     @FXML private TableColumn<Booking, Double> priceColumn;
     @FXML private Button updateBookingButton;
     @FXML private Button cancelBookingButton;
+    @FXML private ProgressIndicator progressIndicator;
     
     private Tourist currentUser;
     private ObservableList<Attraction> attractions;
-    private ObservableList<Booking> userBookings;
+    private ObservableList<Booking> userBookings = FXCollections.observableArrayList();
     
     public void setCurrentUser(Tourist user) {
         this.currentUser = user;
@@ -48,71 +60,41 @@ public class TouristDashboardController {
     
     @FXML
     private void initialize() {
+        DataAccessService.setProgressIndicator(progressIndicator);
         setupTableColumns();
+        bookingsTable.setItems(userBookings);
         setupEventHandlers();
         updateLanguage();
     }
     
     private void initializeDashboard() {
-        // Load fresh data from files and recalculate spending
-        loadUserBookingsAndRecalculateSpending();
-        
         // Display user info using polymorphism
         welcomeLabel.setText(LanguageManager.getText("Welcome") + ", " + currentUser.getFullName() + "!");
-        dashboardInfoLabel.setText(currentUser.getDashboardInfo());
-        
-        loadAttractions();
         updatePriceCalculation();
         
-        System.out.println("Tourist dashboard initialized - Total spent: $" + currentUser.getTotalSpent());
-        System.out.println("Number of bookings: " + (userBookings != null ? userBookings.size() : 0));
+        // Load fresh data on the data thread and recalculate spending
+        loadUserBookingsAndRecalculateSpending();
+        loadAttractions();
     }
     
     private void loadUserBookingsAndRecalculateSpending() {
-        try {
-            // Reset user's booking list and spending
-            currentUser.setTotalSpent(0.0);
-            
-            List<Booking> allBookings = FileHandler.loadBookings();
-            userBookings = FXCollections.observableArrayList();
-            
-            double totalSpent = 0.0;
-            int bookingCount = 0;
-            
-            for (Booking booking : allBookings) {
-                if (booking.getTouristUsername().equals(currentUser.getUsername())) {
-                    userBookings.add(booking);
-                    bookingCount++;
-                    
-                    // Only count confirmed and completed bookings towards spending
-                    if ("Confirmed".equals(booking.getStatus()) || "Completed".equals(booking.getStatus())) {
-                        totalSpent += booking.getTotalPrice();
-                    }
-                }
-            }
-            
-            // Update tourist's total spent
-            currentUser.setTotalSpent(totalSpent);
-            
-            // Save updated tourist data
-            List<Tourist> allTourists = FileHandler.loadTourists();
-            for (int i = 0; i < allTourists.size(); i++) {
-                if (allTourists.get(i).getUsername().equals(currentUser.getUsername())) {
-                    allTourists.get(i).setTotalSpent(totalSpent);
-                    break;
-                }
-            }
-            FileHandler.saveAllTourists(allTourists);
-            
-            bookingsTable.setItems(userBookings);
-            
-            System.out.println("Loaded " + bookingCount + " bookings for tourist: " + currentUser.getUsername());
-            System.out.println("Calculated total spent: $" + totalSpent);
+        // Spending is kept up to date by the booking store, so this is a read only
+        DataAccessService.run(() -> {
+            List<Booking> bookings = BookingRepository.findByTourist(currentUser.getUsername());
+            refreshSpending();
+            return bookings;
+        }, bookings -> {
+            userBookings.setAll(bookings);
+            dashboardInfoLabel.setText(currentUser.getDashboardInfo());
             
-        } catch (Exception e) {
-            System.err.println("Error loading user bookings: " + e.getMessage());
-            e.printStackTrace();
-        }
+            LOG.debug("Loaded " + bookings.size() + " bookings for tourist " + currentUser.getUsername() +
+                ", total spent $" + currentUser.getTotalSpent());
+        }, "Error loading user bookings");
+    }
+    
+    // Copy the running total from the booking store; tourists.txt is updated lazily on logout
+    private void refreshSpending() {
+        currentUser.setTotalSpent(BookingRepository.touristSpending(currentUser.getUsername()));
     }
     
     private void setupTableColumns() {
@@ -155,9 +137,10 @@ public class TouristDashboardController {
     }
     
     private void loadAttractions() {
-        List<Attraction> attractionList = FileHandler.loadAttractions();
-        attractions = FXCollections.observableArrayList(attractionList);
-        attractionComboBox.setItems(attractions);
+        DataAccessService.run(AttractionRepository::findAll, attractionList -> {
+            attractions = FXCollections.observableArrayList(attractionList);
+            attractionComboBox.setItems(attractions);
+        }, "Error loading attractions");
     }
     
     private void updatePriceCalculation() {
@@ -198,12 +181,17 @@ public class TouristDashboardController {
             return;
         }
         
-        // Check if attraction is available
-        if (!selectedAttraction.isAvailable()) {
-            DialogUtils.showError("Error", "This attraction is fully booked!");
-            return;
-        }
-        
+        // Check the attraction's capacity calendar for that date; the booking store makes the final call
+        DataAccessService.run(() -> BookingRepository.seatsLeft(selectedAttraction.getName(), selectedDate), seats -> {
+            if (seats > 0) {
+                confirmNewBooking(selectedAttraction, selectedDate);
+            } else {
+                showFullyBooked(selectedAttraction, selectedDate);
+            }
+        }, "Failed to check availability!");
+    }
+    
+    private void confirmNewBooking(Attraction selectedAttraction, LocalDate selectedDate) {
         // Show high altitude warning
         if (selectedAttraction.isHighAltitude()) {
             Alert alert = DialogUtils.createAlert(Alert.AlertType.WARNING, 
@@ -221,12 +209,8 @@ public class TouristDashboardController {
             }
         }
         
-        // Create booking
-        Booking newBooking = new Booking(currentUser.getUsername(), selectedAttraction, selectedDate);
-        newBooking.confirmBooking();
-        
         // Show festival discount popup if applicable
-        if (newBooking.isFestivalDiscountApplied()) {
+        if (isFestivalSeason(selectedDate)) {
             Alert festivalAlert = DialogUtils.createAlert(Alert.AlertType.INFORMATION,
                 LanguageManager.getText("Festival Discount Applied"),
                 "Congratulations! You've received a 20% discount for booking during the festival season (August-October). Enjoy your trek!");
@@ -235,32 +219,52 @@ public class TouristDashboardController {
             festivalAlert.showAndWait();
         }
         
-        // Save booking
-        FileHandler.saveBooking(newBooking);
-        
-        // Add to user's booking list and update spending
-        userBookings.add(newBooking);
-        currentUser.setTotalSpent(currentUser.getTotalSpent() + newBooking.getTotalPrice());
-        
-        // Save updated tourist data
-        List<Tourist> allTourists = FileHandler.loadTourists();
-        for (int i = 0; i < allTourists.size(); i++) {
-            if (allTourists.get(i).getUsername().equals(currentUser.getUsername())) {
-                allTourists.get(i).setTotalSpent(currentUser.getTotalSpent());
-                break;
+        // Save booking; the new spending total comes back from the booking store
+        DataAccessService.run(() -> {
+            BookingResult result = BookingService.create(currentUser.getUsername(), selectedAttraction.getName(), selectedDate);
+            if (result.isSaved()) {
+                refreshSpending();
             }
-        }
-        FileHandler.saveAllTourists(allTourists);
-        
-        // Update dashboard info
-        dashboardInfoLabel.setText(currentUser.getDashboardInfo());
-        
-        DialogUtils.showInfo("Success", "Booking confirmed successfully!\nBooking ID: " + newBooking.getBookingId());
-        
-        // Clear selection
-        attractionComboBox.setValue(null);
-        trekDatePicker.setValue(null);
-        priceLabel.setText("Select attraction and date");
+            return result;
+        }, result -> {
+            if (result.getStatus() == BookingResult.Status.NO_SEATS) {
+                // The last seat was taken while the dialogs were open
+                showFullyBooked(selectedAttraction, selectedDate);
+                return;
+            }
+            if (!result.isSaved()) {
+                DialogUtils.showError("Error", result.getMessage());
+                return;
+            }
+            
+            // Add to user's booking list
+            Booking newBooking = result.getBooking();
+            userBookings.add(newBooking);
+            
+            // Update dashboard info
+            dashboardInfoLabel.setText(currentUser.getDashboardInfo());
+            
+            DialogUtils.showInfo("Success", "Booking confirmed successfully!\nBooking ID: " + newBooking.getBookingId());
+            
+            // Clear selection
+            attractionComboBox.setValue(null);
+            trekDatePicker.setValue(null);
+            priceLabel.setText("Select attraction and date");
+        }, "Failed to save booking!");
+    }
+    
+    // Tell the user the date is full and suggest the next one with a free seat
+    private void showFullyBooked(Attraction attraction, LocalDate trekDate) {
+        DataAccessService.run(() -> BookingRepository.firstDateWithSeats(attraction.getName(),
+                trekDate.plusDays(1), 1, DATE_SEARCH_DAYS), nextDate -> {
+            String message = attraction.getName() + " is fully booked on " + trekDate + ".";
+            if (nextDate != null) {
+                message += "\nThe next date with free seats is " + nextDate + ".";
+            } else {
+                message += "\nThere are no free seats in the following " + DATE_SEARCH_DAYS + " days.";
+            }
+            DialogUtils.showError("Fully Booked", message);
+        }, "Failed to check availability!");
     }
     
     @FXML
@@ -341,6 +345,9 @@ public class TouristDashboardController {
         Label newPriceLabel = new Label("New Price: Calculating...");
         newPriceLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #2E8B57;");
 
+        // Seats left on the chosen date
+        Label seatsLabel = new Label();
+
         // Notes field
         Label notesLabel = new Label("Special Requests/Notes:");
         TextArea notesArea = new TextArea();
@@ -367,11 +374,38 @@ public class TouristDashboardController {
             }
         };
 
-        newAttractionCombo.setOnAction(e -> updatePrice.run());
-        newDatePicker.setOnAction(e -> updatePrice.run());
+        // Look up seats on the data thread when attraction or date changes
+        Runnable updateSeats = () -> {
+            Attraction selectedAttraction = newAttractionCombo.getValue();
+            LocalDate selectedDate = newDatePicker.getValue();
+
+            if (selectedAttraction == null || selectedDate == null) {
+                seatsLabel.setText("");
+            } else if (selectedAttraction.getName().equals(booking.getAttraction().getName())
+                    && selectedDate.equals(booking.getTrekDate())) {
+                seatsLabel.setText("Your seat on this date is kept");
+            } else {
+                DataAccessService.run(() -> BookingRepository.seatsLeft(selectedAttraction.getName(), selectedDate), seats -> {
+                    // Ignore the answer if the selection has changed since
+                    if (selectedAttraction == newAttractionCombo.getValue() && selectedDate.equals(newDatePicker.getValue())) {
+                        seatsLabel.setText(seats > 0 ? "Seats left on this date: " + seats : "Fully booked on this date");
+                    }
+                }, "Failed to check availability!");
+            }
+        };
+
+        newAttractionCombo.setOnAction(e -> {
+            updatePrice.run();
+            updateSeats.run();
+        });
+        newDatePicker.setOnAction(e -> {
+            updatePrice.run();
+            updateSeats.run();
+        });
 
         // Initial price calculation
         updatePrice.run();
+        updateSeats.run();
 
         // Add components to grid
         int row = 0;
@@ -390,6 +424,7 @@ public class TouristDashboardController {
         grid.add(dateLabel, 0, row);
         grid.add(newDatePicker, 1, row++);
         grid.add(newPriceLabel, 0, row++, 2, 1);
+        grid.add(seatsLabel, 0, row++, 2, 1);
         grid.add(notesLabel, 0, row++, 2, 1);
         grid.add(notesArea, 0, row++, 2, 1);
 
@@ -412,32 +447,16 @@ public class TouristDashboardController {
     private void processBookingUpdate(Booking originalBooking, Attraction newAttraction,
                                      LocalDate newDate, String newNotes) {
         try {
-            // Validation
+            // Everything else is checked by the booking service
             if (newAttraction == null || newDate == null) {
                 DialogUtils.showError("Error", "Please select both attraction and date!");
                 return;
             }
 
-            if (newDate.isBefore(LocalDate.now())) {
-                DialogUtils.showError("Error", "Cannot set trek date in the past!");
-                return;
-            }
-
-            if (newDate.isBefore(LocalDate.now().plusDays(3))) {
-                DialogUtils.showError("Error", "Trek date must be at least 3 days from today!");
-                return;
-            }
-
-            // Check if anything actually changed
             boolean attractionChanged = !newAttraction.getName().equals(originalBooking.getAttraction().getName());
             boolean dateChanged = !newDate.equals(originalBooking.getTrekDate());
             boolean notesChanged = !newNotes.trim().equals(originalBooking.getNotes().trim());
 
-            if (!attractionChanged && !dateChanged && !notesChanged) {
-                DialogUtils.showInfo("Info", "No changes were made to the booking.");
-                return;
-            }
-
             // Show high altitude warning if new attraction is high altitude
             if (attractionChanged && newAttraction.isHighAltitude() &&
                     !originalBooking.getAttraction().isHighAltitude()) {
@@ -456,79 +475,50 @@ public class TouristDashboardController {
                 }
             }
 
-            // Calculate old and new prices for comparison
-            double oldPrice = originalBooking.getTotalPrice();
-            boolean newFestivalSeason = isFestivalSeason(newDate);
-            double newPrice = newAttraction.calculatePrice(newFestivalSeason);
-            double priceDifference = newPrice - oldPrice;
+            // The service saves a copy of the booking and rejects it if someone else changed it first
+            BookingChanges.save(() -> BookingService.modify(originalBooking, newAttraction.getName(), newDate, newNotes),
+                    saved -> refreshSpending(), saved -> {
+                replaceBooking(originalBooking, saved);
 
-            // Update tourist's spending
-            if ("Confirmed".equals(originalBooking.getStatus()) || "Completed".equals(originalBooking.getStatus())) {
-                currentUser.setTotalSpent(currentUser.getTotalSpent() - oldPrice + newPrice);
-            }
+                // Compare old and new prices
+                double newPrice = saved.getTotalPrice();
+                double priceDifference = newPrice - originalBooking.getTotalPrice();
+                dashboardInfoLabel.setText(currentUser.getDashboardInfo());
+
+                // Show success message with details
+                StringBuilder message = new StringBuilder("Booking updated successfully!\n\n");
+                message.append("Booking ID: ").append(saved.getBookingId()).append("\n");
 
-            // Update the booking
-            originalBooking.setAttraction(newAttraction);
-            originalBooking.setTrekDate(newDate);
-            originalBooking.setNotes(newNotes.trim());
-
-            // Save changes to file
-            List<Booking> allBookings = FileHandler.loadBookings();
-            for (int i = 0; i < allBookings.size(); i++) {
-                if (allBookings.get(i).getBookingId() == originalBooking.getBookingId()) {
-                    allBookings.set(i, originalBooking);
-                    break;
+                if (attractionChanged) {
+                    message.append("✓ Attraction changed\n");
                 }
-            }
-            FileHandler.saveAllBookings(allBookings);
-
-            // Update tourist data
-            List<Tourist> allTourists = FileHandler.loadTourists();
-            for (int i = 0; i < allTourists.size(); i++) {
-                if (allTourists.get(i).getUsername().equals(currentUser.getUsername())) {
-                    allTourists.get(i).setTotalSpent(currentUser.getTotalSpent());
-                    break;
+                if (dateChanged) {
+                    message.append("✓ Date changed\n");
+                }
+                if (notesChanged) {
+                    message.append("✓ Notes updated\n");
                 }
-            }
-            FileHandler.saveAllTourists(allTourists);
-
-            // Refresh UI
-            bookingsTable.refresh();
-            dashboardInfoLabel.setText(currentUser.getDashboardInfo());
-
-            // Show success message with details
-            StringBuilder message = new StringBuilder("Booking updated successfully!\n\n");
-            message.append("Booking ID: ").append(originalBooking.getBookingId()).append("\n");
-
-            if (attractionChanged) {
-                message.append("✓ Attraction changed\n");
-            }
-            if (dateChanged) {
-                message.append("✓ Date changed\n");
-            }
-            if (notesChanged) {
-                message.append("✓ Notes updated\n");
-            }
 
-            message.append("\nPrice Change: ");
-            if (priceDifference > 0) {
-                message.append("+$").append(String.format("%.2f", priceDifference));
-            } else if (priceDifference < 0) {
-                message.append("-$").append(String.format("%.2f", Math.abs(priceDifference)));
-            } else {
-                message.append("No change");
-            }
+                message.append("\nPrice Change: ");
+                if (priceDifference > 0) {
+                    message.append("+$").append(String.format("%.2f", priceDifference));
+                } else if (priceDifference < 0) {
+                    message.append("-$").append(String.format("%.2f", Math.abs(priceDifference)));
+                } else {
+                    message.append("No change");
+                }
 
-            message.append("\nNew Total: $").append(String.format("%.2f", newPrice));
+                message.append("\nNew Total: $").append(String.format("%.2f", newPrice));
 
-            if (newFestivalSeason && !originalBooking.isFestivalDiscountApplied()) {
-                message.append("\n🎉 Festival discount now applied!");
-            }
+                if (saved.isFestivalDiscountApplied() && !originalBooking.isFestivalDiscountApplied()) {
+                    message.append("\n🎉 Festival discount now applied!");
+                }
 
-            DialogUtils.showInfo("Success", message.toString());
+                DialogUtils.showInfo("Success", message.toString());
+            }, this::loadUserBookingsAndRecalculateSpending, "Failed to update booking!");
 
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Failed to open the booking update dialog", e);
             DialogUtils.showError("Error", "Failed to update booking: " + e.getMessage());
         }
     }
@@ -558,70 +548,39 @@ public class TouristDashboardController {
         if (DialogUtils.showConfirmation("Confirm Cancellation", 
             "Are you sure you want to cancel this booking?\n\nAfter cancellation, you can delete it permanently if needed.")) {
             
-            // Update tourist's spending before cancelling (only if it was confirmed/completed)
-            if ("Confirmed".equals(selectedBooking.getStatus()) || "Completed".equals(selectedBooking.getStatus())) {
-                currentUser.setTotalSpent(currentUser.getTotalSpent() - selectedBooking.getTotalPrice());
-            }
-            
-            selectedBooking.cancelBooking();
-            
-            // Save changes to file
-            List<Booking> allBookings = FileHandler.loadBookings();
-            for (int i = 0; i < allBookings.size(); i++) {
-                if (allBookings.get(i).getBookingId() == selectedBooking.getBookingId()) {
-                    allBookings.set(i, selectedBooking);
-                    break;
-                }
-            }
-            FileHandler.saveAllBookings(allBookings);
-            
-            // Update tourist data
-            List<Tourist> allTourists = FileHandler.loadTourists();
-            for (int i = 0; i < allTourists.size(); i++) {
-                if (allTourists.get(i).getUsername().equals(currentUser.getUsername())) {
-                    allTourists.get(i).setTotalSpent(currentUser.getTotalSpent());
-                    break;
-                }
-            }
-            FileHandler.saveAllTourists(allTourists);
-            
-            // Refresh UI
-            bookingsTable.refresh();
-            dashboardInfoLabel.setText(currentUser.getDashboardInfo());
-            
-            DialogUtils.showInfo("Success", "Booking cancelled successfully!\n\nYour total spending has been updated.\nYou can now delete this cancelled booking if you wish.");
+            // Save the cancellation and update spending
+            BookingChanges.save(() -> BookingService.cancel(selectedBooking), saved -> refreshSpending(), saved -> {
+                // Refresh UI
+                replaceBooking(selectedBooking, saved);
+                dashboardInfoLabel.setText(currentUser.getDashboardInfo());
+                
+                DialogUtils.showInfo("Success", "Booking cancelled successfully!\n\nYour total spending has been updated.\nYou can now delete this cancelled booking if you wish.");
+            }, this::loadUserBookingsAndRecalculateSpending, "Failed to cancel booking!");
+        }
+    }
+    
+    // Show the saved copy in place of the booking it was made from
+    private void replaceBooking(Booking original, Booking saved) {
+        int index = userBookings.indexOf(original);
+        if (index >= 0) {
+            userBookings.set(index, saved);
         }
     }
     
     private void deleteBooking(Booking booking) {
-        try {
-            // Remove from user's booking list
-            userBookings.remove(booking);
-            
-            // Remove from all bookings file
-            List<Booking> allBookings = FileHandler.loadBookings();
-            allBookings.removeIf(b -> b.getBookingId() == booking.getBookingId());
-            FileHandler.saveAllBookings(allBookings);
-            
-            // Update tourist data
-            List<Tourist> allTourists = FileHandler.loadTourists();
-            for (int i = 0; i < allTourists.size(); i++) {
-                if (allTourists.get(i).getUsername().equals(currentUser.getUsername())) {
-                    allTourists.set(i, currentUser);
-                    break;
-                }
-            }
-            FileHandler.saveAllTourists(allTourists);
-            
+        // Remove from user's booking list
+        userBookings.remove(booking);
+        
+        // Remove from all bookings file and update spending
+        DataAccessService.run(() -> {
+            BookingService.delete(booking.getBookingId());
+            refreshSpending();
+        }, () -> {
             // Update dashboard info
             dashboardInfoLabel.setText(currentUser.getDashboardInfo());
             
             DialogUtils.showInfo("Success", "Cancelled booking deleted permanently!");
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            DialogUtils.showError("Error", "Failed to delete booking: " + e.getMessage());
-        }
+        }, "Failed to delete booking!");
     }
     
     @FXML
@@ -633,6 +592,9 @@ public class TouristDashboardController {
     
     @FXML
     private void handleLogout() {
+        // Write the updated spending totals to tourists.txt in the background
+        DataAccessService.submit(TouristRepository::flushSpending);
+        
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
             Scene scene = new Scene(loader.load());
@@ -641,7 +603,7 @@ public class TouristDashboardController {
             Main.switchScene(scene, "Journey - Nepal Tourism System");
             
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Failed to open the login screen", e);
         }
     }
     
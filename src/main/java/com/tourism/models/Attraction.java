@@ -1,5 +1,7 @@
 package com.tourism.models;
 
+import java.time.LocalDate;
+
 // Attraction class demonstrating encapsulation
 public class Attraction {
     private String name;
@@ -8,8 +10,9 @@ public class Attraction {
     private String difficulty; // "Easy", "Medium", "Hard"
     private double basePrice;
     private String description;
-    private int maxCapacity;
-    private int currentBookings;
+    private int maxCapacity; // seats per trek date
+    // Seats taken per trek date; the booking store keeps it in step with the bookings
+    private final CapacityCalendar calendar = new CapacityCalendar();
     private boolean isActive;
     
     // Constructor
@@ -21,10 +24,18 @@ public class Attraction {
         this.basePrice = basePrice;
         this.description = "";
         this.maxCapacity = 50; // Default capacity
-        this.currentBookings = 0;
         this.isActive = true;
     }
     
+    // Copy of the details for editing; the seat calendar stays with this instance
+    public Attraction copy() {
+        Attraction copy = new Attraction(name, location, altitudeLevel, difficulty, basePrice);
+        copy.description = description;
+        copy.maxCapacity = maxCapacity;
+        copy.isActive = isActive;
+        return copy;
+    }
+    
     // Encapsulation - Getters and Setters
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
@@ -47,9 +58,7 @@ public class Attraction {
     public int getMaxCapacity() { return maxCapacity; }
     public void setMaxCapacity(int maxCapacity) { this.maxCapacity = maxCapacity; }
     
-    public int getCurrentBookings() { return currentBookings; }
-    public void incrementBookings() { this.currentBookings++; }
-    public void decrementBookings() { if (this.currentBookings > 0) this.currentBookings--; }
+    public int getCurrentBookings() { return calendar.totalTaken(); }
     
     public boolean isActive() { return isActive; }
     public void setActive(boolean active) { this.isActive = active; }
@@ -59,8 +68,31 @@ public class Attraction {
         return "High".equalsIgnoreCase(altitudeLevel);
     }
     
-    public boolean isAvailable() {
-        return isActive && currentBookings < maxCapacity;
+    public boolean isAvailable(LocalDate trekDate) {
+        return isActive && getAvailableSpots(trekDate) > 0;
+    }
+    
+    // Claim one seat on the trek date; false (and nothing claimed) if the date is full
+    public boolean tryReserve(LocalDate trekDate) {
+        return isActive && calendar.tryReserve(trekDate, maxCapacity);
+    }
+    
+    public void release(LocalDate trekDate) {
+        calendar.release(trekDate);
+    }
+    
+    // Count a seat held by a stored booking, even past capacity
+    public void restoreReservation(LocalDate trekDate) {
+        calendar.restore(trekDate);
+    }
+    
+    public void clearReservations() {
+        calendar.clear();
+    }
+    
+    // First trek date from 'from' within the next 'days' days with 'seats' free seats, or null
+    public LocalDate firstDateWithSeats(LocalDate from, int seats, int days) {
+        return isActive ? calendar.firstDateWithSeats(from, seats, days, maxCapacity) : null;
     }
     
     public double calculatePrice(boolean isFestivalSeason) {
@@ -87,8 +119,8 @@ public class Attraction {
         return price;
     }
     
-    public int getAvailableSpots() {
-        return maxCapacity - currentBookings;
+    public int getAvailableSpots(LocalDate trekDate) {
+        return calendar.remaining(trekDate, maxCapacity);
     }
     
     @Override
@@ -98,7 +130,7 @@ public class Attraction {
                "Altitude: " + altitudeLevel + "\n" +
                "Difficulty: " + difficulty + "\n" +
                "Base Price: $" + String.format("%.2f", basePrice) + "\n" +
-               "Available Spots: " + getAvailableSpots() + "/" + maxCapacity + "\n" +
+               "Capacity: " + maxCapacity + " per trek date\n" +
                "Status: " + (isActive ? "Active" : "Inactive");
     }
 }
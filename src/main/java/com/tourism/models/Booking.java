@@ -1,12 +1,11 @@
 package com.tourism.models;
 
+import com.tourism.utils.BookingIdAllocator;
 import java.time.LocalDate;
 import java.time.Month;
 
 // Booking class demonstrating encapsulation and composition
 public class Booking {
-    private static int nextId = 1;
-    
     private int bookingId;
     private String touristUsername;
     private String guideUsername;
@@ -17,10 +16,11 @@ public class Booking {
     private double totalPrice;
     private boolean festivalDiscountApplied;
     private String notes;
+    private int version; // bumped on every saved change, see BookingRepository.update
     
     // Constructor
     public Booking(String touristUsername, Attraction attraction, LocalDate trekDate) {
-        this.bookingId = nextId++;
+        this.bookingId = BookingIdAllocator.next();
         this.touristUsername = touristUsername;
         this.attraction = attraction;
         this.bookingDate = LocalDate.now();
@@ -45,23 +45,41 @@ public class Booking {
         this.guideUsername = "";
         this.notes = "";
         
-        // Update nextId to prevent conflicts
-        if (bookingId >= nextId) {
-            nextId = bookingId + 1;
-        }
+        // Make sure new bookings never reuse this ID
+        BookingIdAllocator.observe(bookingId);
         
         // Calculate price and check for festival discount
         this.festivalDiscountApplied = isFestivalSeason(trekDate);
         this.totalPrice = attraction.calculatePrice(festivalDiscountApplied);
     }
     
+    // Copy for editing: changes stay private until the copy is saved
+    public Booking copy() {
+        Booking copy = new Booking();
+        copy.bookingId = bookingId;
+        copy.touristUsername = touristUsername;
+        copy.guideUsername = guideUsername;
+        copy.attraction = attraction;
+        copy.bookingDate = bookingDate;
+        copy.trekDate = trekDate;
+        copy.status = status;
+        copy.totalPrice = totalPrice;
+        copy.festivalDiscountApplied = festivalDiscountApplied;
+        copy.notes = notes;
+        copy.version = version;
+        return copy;
+    }
+    
+    private Booking() {
+    }
+    
     // Static method to set next ID (for loading from file)
     public static void setNextId(int id) {
-        nextId = id;
+        BookingIdAllocator.reset(id);
     }
     
     public static int getNextId() {
-        return nextId;
+        return BookingIdAllocator.peekNext();
     }
     
     // Encapsulation - Getters and Setters
@@ -100,6 +118,9 @@ public class Booking {
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
     
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+    
     // Business logic methods
     private boolean isFestivalSeason(LocalDate date) {
         Month month = date.getMonth();
@@ -125,17 +146,16 @@ public class Booking {
         return "Cancelled".equals(status);
     }
     
+    // Seats are claimed and released by the booking store when the status is saved
     public void confirmBooking() {
         if ("Pending".equals(status)) {
             this.status = "Confirmed";
-            attraction.incrementBookings();
         }
     }
     
     public void cancelBooking() {
         if (canBeCancelled()) {
             this.status = "Cancelled";
-            attraction.decrementBookings();
         }
     }
     
@@ -0,0 +1,96 @@
+package com.tourism.models;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Seats taken per trek date for one attraction.
+// Each year is one array slot per day of year, so a date lookup is an array read and a
+// range query walks neighbouring slots. Seats are claimed and released with CAS, so
+// concurrent bookings never oversell a date and need no lock. Capacity is passed in
+// rather than stored, so changing an attraction's capacity needs no rewrite.
+public class CapacityCalendar {
+    private static final int DAYS_PER_YEAR = 366;
+
+    private final ConcurrentMap<Integer, AtomicIntegerArray> years = new ConcurrentHashMap<>();
+    private final AtomicInteger totalTaken = new AtomicInteger();
+
+    // Claim one seat on the date; false (and nothing claimed) if the date is full
+    public boolean tryReserve(LocalDate date, int capacity) {
+        AtomicIntegerArray days = year(date);
+        int slot = slot(date);
+        while (true) {
+            int taken = days.get(slot);
+            if (taken >= capacity) {
+                return false;
+            }
+            if (days.compareAndSet(slot, taken, taken + 1)) {
+                totalTaken.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    public void release(LocalDate date) {
+        AtomicIntegerArray days = years.get(date.getYear());
+        if (days != null && days.getAndUpdate(slot(date), taken -> Math.max(0, taken - 1)) > 0) {
+            totalTaken.decrementAndGet();
+        }
+    }
+
+    // Count a seat held by a stored booking, even past capacity
+    public void restore(LocalDate date) {
+        year(date).incrementAndGet(slot(date));
+        totalTaken.incrementAndGet();
+    }
+
+    public void clear() {
+        years.clear();
+        totalTaken.set(0);
+    }
+
+    public int taken(LocalDate date) {
+        AtomicIntegerArray days = years.get(date.getYear());
+        return days != null ? days.get(slot(date)) : 0;
+    }
+
+    public int remaining(LocalDate date, int capacity) {
+        return Math.max(0, capacity - taken(date));
+    }
+
+    public int totalTaken() {
+        return totalTaken.get();
+    }
+
+    // First date from 'from' (inclusive) within the next 'days' days with at least
+    // 'seats' free seats, or null if there is none
+    public LocalDate firstDateWithSeats(LocalDate from, int seats, int days, int capacity) {
+        LocalDate date = from;
+        LocalDate end = from.plusDays(days);
+        while (date.isBefore(end)) {
+            AtomicIntegerArray yearDays = years.get(date.getYear());
+            if (yearDays == null) {
+                // Nothing booked in this year yet
+                return capacity >= seats ? date : null;
+            }
+            int daysInYear = date.lengthOfYear();
+            for (int slot = slot(date); slot < daysInYear && date.isBefore(end); slot++) {
+                if (capacity - yearDays.get(slot) >= seats) {
+                    return date;
+                }
+                date = date.plusDays(1);
+            }
+        }
+        return null;
+    }
+
+    private AtomicIntegerArray year(LocalDate date) {
+        return years.computeIfAbsent(date.getYear(), year -> new AtomicIntegerArray(DAYS_PER_YEAR));
+    }
+
+    private static int slot(LocalDate date) {
+        return date.getDayOfYear() - 1;
+    }
+}
@@ -1,10 +1,13 @@
 package com.tourism.models;
 
+import com.tourism.utils.Logger;
 import java.util.ArrayList;
 import java.util.List;
 
 // Guide class inheriting from Person
 public class Guide extends Person {
+    private static final Logger LOG = Logger.get(Guide.class);
+    
     private List<String> languages;
     private int experienceYears;
     private List<String> specializations;
@@ -24,7 +27,19 @@ public class Guide extends Person {
         this.assignedBookings = new ArrayList<>();
         this.isAvailable = true;
         
-        System.out.println("Guide created: " + fullName + " with " + this.languages.size() + " languages");
+        // Logged lazily: loading a large guides file creates one Guide per record
+        int languageCount = this.languages.size();
+        LOG.debug(() -> "Guide created: " + fullName + " with " + languageCount + " languages");
+    }
+    
+    // Copy for editing: changes stay private until the copy is saved
+    public Guide copy() {
+        Guide copy = new Guide(getUsername(), getPassword(), getFullName(), getEmail(), getPhone(), languages, experienceYears);
+        copy.specializations = new ArrayList<>(specializations);
+        copy.totalEarnings = totalEarnings;
+        copy.assignedBookings = new ArrayList<>(assignedBookings);
+        copy.isAvailable = isAvailable;
+        return copy;
     }
     
     // Encapsulation
@@ -56,8 +71,9 @@ public class Guide extends Person {
             // Calculate commission (30% of booking price)
             double commission = booking.getTotalPrice() * 0.30;
             addEarnings(commission);
-            System.out.println("Guide " + getUsername() + " earned $" + String.format("%.2f", commission) + 
-                " from booking " + booking.getBookingId() + ". Total earnings: $" + String.format("%.2f", totalEarnings));
+            double total = totalEarnings;
+            LOG.debug(() -> "Guide " + getUsername() + " earned $" + String.format("%.2f", commission) + 
+                " from booking " + booking.getBookingId() + ". Total earnings: $" + String.format("%.2f", total));
         }
     }
     
@@ -68,7 +84,7 @@ public class Guide extends Person {
             double commission = booking.getTotalPrice() * 0.30;
             this.totalEarnings -= commission;
             if (this.totalEarnings < 0) this.totalEarnings = 0;
-            System.out.println("Guide " + getUsername() + " lost $" + String.format("%.2f", commission) + " from cancelled booking " + booking.getBookingId());
+            LOG.debug(() -> "Guide " + getUsername() + " lost $" + String.format("%.2f", commission) + " from cancelled booking " + booking.getBookingId());
         }
     }
     
@@ -0,0 +1,136 @@
+package com.tourism.repository;
+
+import com.tourism.models.Attraction;
+import com.tourism.utils.DataDirectoryLock;
+import com.tourism.utils.FileHandler;
+import java.util.*;
+import java.util.function.Consumer;
+
+// Process-wide attraction store: attractions.txt is parsed once and served from memory afterwards.
+// It is parsed again only when another instance has written it (see DataDirectoryLock).
+public class AttractionRepository {
+    private static final String[] FILES = FileHandler.attractionFiles();
+    private static final Map<String, Attraction> attractionsByName = new LinkedHashMap<>();
+    private static volatile boolean loaded = false;
+    // Bumped on every load, so the booking store knows its bookings hold replaced instances
+    private static volatile int generation = 0;
+    
+    // Load (or reload) every attraction from disk
+    public static void load() {
+        DataDirectoryLock.read(() -> {
+            synchronized (AttractionRepository.class) {
+                loadFromDisk();
+            }
+        });
+    }
+    
+    private static void loadFromDisk() {
+        attractionsByName.clear();
+        for (Attraction attraction : FileHandler.loadAttractions()) {
+            attractionsByName.put(attraction.getName(), attraction);
+        }
+        DataDirectoryLock.markSeen(FILES);
+        generation++;
+        loaded = true;
+    }
+    
+    // A file stat unless a reload is due. Takes the data lock, so callers not already
+    // holding it must call this before taking our monitor (lock order).
+    private static void refresh() {
+        if (loaded && !DataDirectoryLock.isStale(FILES)) {
+            return;
+        }
+        DataDirectoryLock.read(() -> {
+            synchronized (AttractionRepository.class) {
+                if (!loaded || DataDirectoryLock.isStale(FILES)) {
+                    loadFromDisk();
+                }
+            }
+        });
+    }
+    
+    public static Attraction findByName(String name) {
+        refresh();
+        synchronized (AttractionRepository.class) {
+            return attractionsByName.get(name);
+        }
+    }
+    
+    public static List<Attraction> findAll() {
+        refresh();
+        synchronized (AttractionRepository.class) {
+            return new ArrayList<>(attractionsByName.values());
+        }
+    }
+    
+    // Name -> attraction lookup used to hydrate bookings with the shared instances
+    public static Map<String, Attraction> findAllByName() {
+        refresh();
+        synchronized (AttractionRepository.class) {
+            return new HashMap<>(attractionsByName);
+        }
+    }
+    
+    public static int generation() {
+        refresh();
+        return generation;
+    }
+    
+    // Writers refresh under the exclusive lock first, so a full rewrite never drops
+    // changes another instance made in the meantime
+    public static void add(Attraction attraction) {
+        DataDirectoryLock.write(() -> {
+            synchronized (AttractionRepository.class) {
+                refresh();
+                attractionsByName.put(attraction.getName(), attraction);
+                persist();
+            }
+        });
+    }
+    
+    // Edit a stored attraction under the exclusive lock; null if it is gone. The file is
+    // written from an edited copy, and the stored attraction (which bookings and their seat
+    // counts point to) is only changed once that write has returned, so a failed save leaves
+    // it as it was. Bookings store the attraction by name, so a rename also rewrites the
+    // bookings snapshot in the same exclusive section: no other instance can reload one
+    // file without the other. That happens outside our monitor, which is taken after the
+    // booking store's (lock order).
+    public static Attraction update(String name, Consumer<Attraction> change) {
+        return DataDirectoryLock.write(() -> {
+            Attraction updated = edit(name, change);
+            if (updated != null && !name.equals(updated.getName())) {
+                BookingRepository.compact();
+            }
+            return updated;
+        });
+    }
+    
+    private static Attraction edit(String name, Consumer<Attraction> change) {
+        synchronized (AttractionRepository.class) {
+            refresh();
+            Attraction stored = attractionsByName.get(name);
+            if (stored == null) {
+                return null;
+            }
+            Attraction edited = stored.copy();
+            change.accept(edited);
+            List<Attraction> attractions = new ArrayList<>(attractionsByName.values());
+            attractions.set(attractions.indexOf(stored), edited);
+            FileHandler.saveAllAttractions(attractions);
+            
+            // The name is the key, so a rename moves the entry in place
+            change.accept(stored);
+            attractionsByName.clear();
+            for (Attraction attraction : attractions) {
+                Attraction kept = attraction == edited ? stored : attraction;
+                attractionsByName.put(kept.getName(), kept);
+            }
+            return stored;
+        }
+    }
+    
+    // Single write path for the attractions file
+    private static void persist() {
+        FileHandler.saveAllAttractions(new ArrayList<>(attractionsByName.values()));
+    }
+}
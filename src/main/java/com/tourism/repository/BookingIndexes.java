@@ -0,0 +1,79 @@
+package com.tourism.repository;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Secondary indexes over the booking store: booking ids by tourist, guide and attraction,
+// plus a date-ordered index on trek date for range queries.
+// Only touched from BookingRepository while it holds its lock.
+class BookingIndexes {
+    private static final Map<String, Set<Integer>> byTourist = new HashMap<>();
+    private static final Map<String, Set<Integer>> byGuide = new HashMap<>();
+    private static final Map<String, Set<Integer>> byAttraction = new HashMap<>();
+    private static final NavigableMap<LocalDate, Set<Integer>> byTrekDate = new TreeMap<>();
+    
+    static void clear() {
+        byTourist.clear();
+        byGuide.clear();
+        byAttraction.clear();
+        byTrekDate.clear();
+    }
+    
+    // Move a booking from its old index entries to its new ones (either may be null)
+    static void apply(BookingSnapshot before, BookingSnapshot after) {
+        if (before != null) {
+            remove(byTourist, before.touristUsername, before.bookingId);
+            if (before.hasGuide()) {
+                remove(byGuide, before.guideUsername, before.bookingId);
+            }
+            remove(byAttraction, before.attractionName, before.bookingId);
+            remove(byTrekDate, before.trekDate, before.bookingId);
+        }
+        if (after != null) {
+            add(byTourist, after.touristUsername, after.bookingId);
+            if (after.hasGuide()) {
+                add(byGuide, after.guideUsername, after.bookingId);
+            }
+            add(byAttraction, after.attractionName, after.bookingId);
+            add(byTrekDate, after.trekDate, after.bookingId);
+        }
+    }
+    
+    static Set<Integer> byTourist(String touristUsername) {
+        return byTourist.getOrDefault(touristUsername, Collections.emptySet());
+    }
+    
+    static Set<Integer> byGuide(String guideUsername) {
+        return byGuide.getOrDefault(guideUsername, Collections.emptySet());
+    }
+    
+    static Set<Integer> byAttraction(String attractionName) {
+        return byAttraction.getOrDefault(attractionName, Collections.emptySet());
+    }
+    
+    // Booking ids with a trek date in [from, to], in date order
+    static List<Integer> byTrekDate(LocalDate from, LocalDate to) {
+        List<Integer> result = new ArrayList<>();
+        for (Set<Integer> ids : byTrekDate.subMap(from, true, to, true).values()) {
+            result.addAll(ids);
+        }
+        return result;
+    }
+    
+    static Map<String, Integer> countsByAttraction() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        byAttraction.forEach((name, ids) -> counts.put(name, ids.size()));
+        return counts;
+    }
+    
+    private static <K> void add(Map<K, Set<Integer>> index, K key, int bookingId) {
+        index.computeIfAbsent(key, k -> new TreeSet<>()).add(bookingId);
+    }
+    
+    private static <K> void remove(Map<K, Set<Integer>> index, K key, int bookingId) {
+        Set<Integer> ids = index.get(key);
+        if (ids != null && ids.remove(bookingId) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.tourism.repository;
+
+import com.tourism.models.Attraction;
+import com.tourism.models.Booking;
+import com.tourism.utils.BookingJournal;
+import com.tourism.utils.DataDirectoryLock;
+import com.tourism.utils.FileHandler;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// Process-wide booking store: bookings.txt is parsed once and served from memory afterwards.
+// Changes are appended to the booking journal instead of rewriting the whole file.
+// Both are read again only when another instance has written them (see DataDirectoryLock).
+public class BookingRepository {
+    private static final String[] FILES = FileHandler.bookingFiles();
+    private static final Map<Integer, Booking> bookingsById = new LinkedHashMap<>();
+    // Last saved state of each booking, used to update the aggregates incrementally
+    private static final Map<Integer, BookingSnapshot> snapshotsById = new HashMap<>();
+    private static volatile boolean loaded = false;
+    // AttractionRepository.generation() our bookings were hydrated from
+    private static volatile int attractionGeneration = -1;
+    
+    // What happened to a write; only SAVED changes anything
+    public enum Outcome { SAVED, CONFLICT, NO_SEATS, NOT_FOUND }
+    
+    // A write decided under the lock; the wait for its journal entry happens after release
+    private static final class Write {
+        private final Outcome outcome;
+        private final CompletableFuture<Void> logged;
+        
+        private Write(Outcome outcome, CompletableFuture<Void> logged) {
+            this.outcome = outcome;
+            this.logged = logged;
+        }
+        
+        private static Write rejected(Outcome outcome) {
+            return new Write(outcome, null);
+        }
+    }
+    
+    // Load (or reload) every booking from the snapshot plus the journal.
+    // Exclusive because loading first writes out our own queued entries and may compact.
+    public static void load() {
+        DataDirectoryLock.write(() -> {
+            synchronized (BookingRepository.class) {
+                loadFromDisk();
+            }
+        });
+    }
+    
+    private static void loadFromDisk() {
+        bookingsById.clear();
+        Map<String, Attraction> attractionsByName = AttractionRepository.findAllByName();
+        attractionGeneration = AttractionRepository.generation();
+        for (Booking booking : FileHandler.loadBookings(attractionsByName)) {
+            bookingsById.put(booking.getBookingId(), booking);
+        }
+        BookingJournal.replay(bookingsById, attractionsByName);
+        
+        snapshotsById.clear();
+        BookingIndexes.clear();
+        GuideEarnings.clear();
+        TouristSpending.clear();
+        RevenueTotals.clear();
+        for (Attraction attraction : attractionsByName.values()) {
+            attraction.clearReservations();
+        }
+        for (Booking booking : bookingsById.values()) {
+            track(booking);
+            // Stored bookings keep their seat even if capacity was lowered since
+            if (holdsSeat(booking)) {
+                booking.getAttraction().restoreReservation(booking.getTrekDate());
+            }
+        }
+        DataDirectoryLock.markSeen(FILES);
+        loaded = true;
+        compactIfNeeded();
+    }
+    
+    // A file stat unless a reload is due. Takes the data lock, so callers not already
+    // holding it must call this before taking our monitor (lock order).
+    private static void refresh() {
+        if (isCurrent()) {
+            return;
+        }
+        DataDirectoryLock.write(() -> {
+            synchronized (BookingRepository.class) {
+                if (!isCurrent()) {
+                    loadFromDisk();
+                }
+            }
+        });
+    }
+    
+    // Reloaded attractions also mean a reload: seat counters live on the attraction instances
+    private static boolean isCurrent() {
+        return loaded && attractionGeneration == AttractionRepository.generation()
+            && !DataDirectoryLock.isStale(FILES);
+    }
+    
+    public static Booking findById(int bookingId) {
+        refresh();
+        synchronized (BookingRepository.class) {
+            return bookingsById.get(bookingId);
+        }
+    }
+    
+    public static List<Booking> findAll() {
+        refresh();
+        synchronized (BookingRepository.class) {
+            return new ArrayList<>(bookingsById.values());
+        }
+    }
+    
+    // The find methods below go through the secondary indexes and only touch matching bookings
+    public static List<Booking> findByTourist(String touristUsername) {
+        refresh();
+        synchronized (BookingRepository.class) {
+            return resolve(BookingIndexes.byTourist(touristUsername));
+        }
+    }
+    
+    public static List<Booking> findByGuide(String guideUsername) {
+        refresh();
+        synchronized (BookingRepository.class) {
+            return resolve(BookingIndexes.byGuide(guideUsername));
+        }
+    }
+    
+    // Non-cancelled bookings assigned to the guide
+    public static List<Booking> findActiveByGuide(String guideUsername) {
+        refresh();
+        synchronized (BookingRepository.class) {
+            List<Booking> result = new ArrayList<>();
+            for (Booking booking : resolve(BookingIndexes.byGuide(guideUsername))) {
+                if (!"Cancelled".equals(booking.getStatus())) {
+                    result.add(booking);
+                }
+            }
+            return result;
+        }
+    }
+    
+    public static List<Booking> findByAttraction(String attractionName) {
+        refresh();
+        synchronized (BookingRepository.class) {
+            return resolve(BookingIndexes.byAttraction(attractionName));
+        }
+    }
+    
+    // Bookings with a trek date between from and to (both inclusive), earliest first
+    public static List<Booking> findByTrekDateBetween(LocalDate from, LocalDate to) {
+        refresh();
+        synchronized (BookingRepository.class) {
+            return resolve(BookingIndexes.byTrekDate(from, to));
+        }
+    }
+    
+    // Number of bookings per attraction name
+    public static Map<String, Integer> countByAttraction() {
+        refresh();
+        synchronized (BookingRepository.class) {
+            return BookingIndexes.countsByAttraction();
+        }
+    }
+    
+    // Total of the tourist's confirmed and completed bookings
+    public static double touristSpending(String touristUsername) {
+        refresh();
+        synchronized (BookingRepository.class) {
+            return TouristSpending.spentBy(touristUsername);
+        }
+    }
+    
+    // 30% commission on the guide's confirmed and completed bookings
+    public static double guideEarnings(String guideUsername) {
+        refresh();
+        synchronized (BookingRepository.class) {
+            return GuideEarnings.earningsOf(guideUsername);
+        }
+    }
+    
+    // Sum of all confirmed and completed bookings
+    public static double grossRevenue() {
+        refresh();
+        synchronized (BookingRepository.class) {
+            return RevenueTotals.grossRevenue();
+        }
+    }
+    
+    // 30% commission on confirmed and completed bookings that have a guide
+    public static double guideCommissions() {
+        refresh();
+        synchronized (BookingRepository.class) {
+            return RevenueTotals.guideCommissions();
+        }
+    }
+    
+    public static int count() {
+        refresh();
+        synchronized (BookingRepository.class) {
+            return bookingsById.size();
+        }
+    }
+    
+    // Availability is read from the current attraction's capacity calendar, which this store
+    // rebuilds on load; an Attraction instance held by a screen may be from an older load.
+    // Both return "nothing free" for an attraction that no longer exists.
+    // The attraction is resolved before our monitor is taken: a stale attractions file makes
+    // the lookup take the data lock, which writers hold while they wait for our monitor.
+    public static int seatsLeft(String attractionName, LocalDate trekDate) {
+        Attraction attraction = AttractionRepository.findByName(attractionName);
+        refresh();
+        synchronized (BookingRepository.class) {
+            return attraction != null && attraction.isActive() ? attraction.getAvailableSpots(trekDate) : 0;
+        }
+    }
+    
+    public static LocalDate firstDateWithSeats(String attractionName, LocalDate from, int seats, int days) {
+        Attraction attraction = AttractionRepository.findByName(attractionName);
+        refresh();
+        synchronized (BookingRepository.class) {
+            return attraction != null ? attraction.firstDateWithSeats(from, seats, days) : null;
+        }
+    }
+    
+    // Writers change memory and queue their journal entry under the lock, then wait for the
+    // entry to be durable outside it, so concurrent writers share one group commit.
+    // They refresh under the exclusive data lock first, so a compaction never drops
+    // bookings another instance logged in the meantime.
+    // A booking is only stored if its trek date still has a free seat (NO_SEATS otherwise).
+    public static Outcome add(Booking booking) {
+        return finish(DataDirectoryLock.write(() -> {
+            synchronized (BookingRepository.class) {
+                refresh();
+                return save(null, booking);
+            }
+        }));
+    }
+    
+    /**
+     * Persist changes made to a booking (status, guide, date, attraction) with
+     * optimistic concurrency: the save succeeds only if the stored booking still has the
+     * version the caller read, and then bumps it. Edit a copy() so a rejected change never
+     * touches the stored booking. On CONFLICT (someone else saved first) re-read it and
+     * retry, or apply the change to the latest version with modify().
+     */
+    public static Outcome update(Booking booking) {
+        return finish(DataDirectoryLock.write(() -> {
+            synchronized (BookingRepository.class) {
+                refresh();
+                Booking current = bookingsById.get(booking.getBookingId());
+                if (current == null) {
+                    return Write.rejected(Outcome.NOT_FOUND);
+                }
+                if (current.getVersion() != booking.getVersion()) {
+                    return Write.rejected(Outcome.CONFLICT);
+                }
+                return save(current, booking);
+            }
+        }));
+    }
+    
+    // Merge path: apply the change to a copy of the latest version and store it in one step
+    public static Outcome modify(int bookingId, Consumer<Booking> change) {
+        return finish(DataDirectoryLock.write(() -> {
+            synchronized (BookingRepository.class) {
+                refresh();
+                Booking current = bookingsById.get(bookingId);
+                if (current == null) {
+                    return Write.rejected(Outcome.NOT_FOUND);
+                }
+                Booking changed = current.copy();
+                change.accept(changed);
+                return save(current, changed);
+            }
+        }));
+    }
+    
+    public static void delete(int bookingId) {
+        FileHandler.awaitDurable(DataDirectoryLock.write(() -> {
+            synchronized (BookingRepository.class) {
+                refresh();
+                Booking removed = bookingsById.remove(bookingId);
+                if (removed == null) {
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                moveSeat(removed, null);
+                changed(snapshotsById.remove(bookingId), null);
+                CompletableFuture<Void> logged = BookingJournal.recordDelete(bookingId);
+                compactIfNeeded();
+                return logged;
+            }
+        }));
+    }
+    
+    // Rewrite the bookings.txt snapshot now, e.g. after an attraction was renamed
+    public static void compact() {
+        DataDirectoryLock.write(() -> {
+            synchronized (BookingRepository.class) {
+                refresh();
+                // A rename changes the attraction key of existing bookings, so refresh the indexes too
+                for (Booking booking : bookingsById.values()) {
+                    track(booking);
+                }
+                BookingJournal.compact(new ArrayList<>(bookingsById.values()));
+            }
+        });
+    }
+    
+    // Caller holds the lock and has checked the version (before is null for a new booking)
+    private static Write save(Booking before, Booking after) {
+        // The caller may hold an attraction instance from before a reload
+        Attraction attraction = AttractionRepository.findByName(after.getAttraction().getName());
+        if (attraction != null && attraction != after.getAttraction()) {
+            after.setAttraction(attraction);
+        }
+        if (!moveSeat(before, after)) {
+            return Write.rejected(Outcome.NO_SEATS);
+        }
+        if (before != null) {
+            after.setVersion(before.getVersion() + 1);
+        }
+        bookingsById.put(after.getBookingId(), after);
+        track(after);
+        CompletableFuture<Void> logged = BookingJournal.recordPut(after);
+        compactIfNeeded();
+        return new Write(Outcome.SAVED, logged);
+    }
+    
+    private static Outcome finish(Write write) {
+        if (write.logged != null) {
+            FileHandler.awaitDurable(write.logged);
+        }
+        return write.outcome;
+    }
+    
+    // Every booking except a cancelled one holds a seat on its trek date. The new seat is
+    // claimed before the old one is released, so a move to a full date changes nothing.
+    private static boolean moveSeat(Booking before, Booking after) {
+        boolean heldBefore = before != null && holdsSeat(before);
+        boolean holdsAfter = after != null && holdsSeat(after);
+        if (heldBefore && holdsAfter && before.getAttraction() == after.getAttraction()
+                && before.getTrekDate().equals(after.getTrekDate())) {
+            return true;
+        }
+        if (holdsAfter && !after.getAttraction().tryReserve(after.getTrekDate())) {
+            return false;
+        }
+        if (heldBefore) {
+            before.getAttraction().release(before.getTrekDate());
+        }
+        return true;
+    }
+    
+    private static boolean holdsSeat(Booking booking) {
+        return !"Cancelled".equals(booking.getStatus());
+    }
+    
+    private static List<Booking> resolve(Collection<Integer> bookingIds) {
+        List<Booking> result = new ArrayList<>(bookingIds.size());
+        for (int bookingId : bookingIds) {
+            result.add(bookingsById.get(bookingId));
+        }
+        return result;
+    }
+    
+    private static void track(Booking booking) {
+        BookingSnapshot after = BookingSnapshot.of(booking);
+        changed(snapshotsById.put(booking.getBookingId(), after), after);
+    }
+    
+    // Every index and aggregate derived from bookings is updated here
+    private static void changed(BookingSnapshot before, BookingSnapshot after) {
+        BookingIndexes.apply(before, after);
+        GuideEarnings.apply(before, after);
+        TouristSpending.apply(before, after);
+        RevenueTotals.apply(before, after);
+    }
+    
+    // Fold the journal into a fresh bookings.txt snapshot once it gets long
+    private static void compactIfNeeded() {
+        if (BookingJournal.needsCompaction()) {
+            BookingJournal.compact(new ArrayList<>(bookingsById.values()));
+        }
+    }
+}
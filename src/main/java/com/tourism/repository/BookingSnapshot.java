@@ -0,0 +1,44 @@
+package com.tourism.repository;
+
+import com.tourism.models.Booking;
+import java.time.LocalDate;
+
+// Immutable copy of the booking fields the aggregates depend on.
+// Bookings are edited in place, so the repository keeps the last saved state
+// of each one to tell the aggregates exactly what changed.
+final class BookingSnapshot {
+    final int bookingId;
+    final String touristUsername;
+    final String guideUsername;
+    final String attractionName;
+    final LocalDate trekDate;
+    final String status;
+    final long priceCents;
+    
+    private BookingSnapshot(Booking booking) {
+        this.bookingId = booking.getBookingId();
+        this.touristUsername = booking.getTouristUsername();
+        this.guideUsername = booking.getGuideUsername() == null ? "" : booking.getGuideUsername();
+        this.attractionName = booking.getAttraction().getName();
+        this.trekDate = booking.getTrekDate();
+        this.status = booking.getStatus();
+        this.priceCents = Math.round(booking.getTotalPrice() * 100);
+    }
+    
+    static BookingSnapshot of(Booking booking) {
+        return new BookingSnapshot(booking);
+    }
+    
+    boolean hasGuide() {
+        return !guideUsername.isEmpty();
+    }
+    
+    boolean isCancelled() {
+        return "Cancelled".equals(status);
+    }
+    
+    // Only confirmed and completed bookings count as paid
+    boolean isPaid() {
+        return "Confirmed".equals(status) || "Completed".equals(status);
+    }
+}
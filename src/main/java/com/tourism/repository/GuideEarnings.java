@@ -0,0 +1,39 @@
+package com.tourism.repository;
+
+import java.util.*;
+
+// Per-guide earnings, kept up to date from booking changes.
+// Only touched from BookingRepository while it holds its lock.
+class GuideEarnings {
+    private static final double COMMISSION_RATE = 0.30;
+    
+    // Sum of paid booking prices in cents, so repeated updates never drift
+    private static final Map<String, Long> paidCentsByGuide = new HashMap<>();
+    
+    static void clear() {
+        paidCentsByGuide.clear();
+    }
+    
+    // Move a booking's contribution from its old state to its new one (either may be null)
+    static void apply(BookingSnapshot before, BookingSnapshot after) {
+        if (before != null && before.hasGuide() && before.isPaid()) {
+            add(before.guideUsername, -before.priceCents);
+        }
+        if (after != null && after.hasGuide() && after.isPaid()) {
+            add(after.guideUsername, after.priceCents);
+        }
+    }
+    
+    static double earningsOf(String guideUsername) {
+        return paidCentsByGuide.getOrDefault(guideUsername, 0L) * COMMISSION_RATE / 100.0;
+    }
+    
+    private static void add(String guideUsername, long cents) {
+        long total = paidCentsByGuide.getOrDefault(guideUsername, 0L) + cents;
+        if (total == 0) {
+            paidCentsByGuide.remove(guideUsername);
+        } else {
+            paidCentsByGuide.put(guideUsername, total);
+        }
+    }
+}
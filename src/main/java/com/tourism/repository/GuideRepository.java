@@ -0,0 +1,181 @@
+package com.tourism.repository;
+
+import com.tourism.models.Guide;
+import com.tourism.utils.DataDirectoryLock;
+import com.tourism.utils.FileHandler;
+import java.util.*;
+import java.util.function.Consumer;
+
+// Process-wide guide store: guides.txt is parsed once and served from memory afterwards.
+// It is parsed again only when another instance has written it (see DataDirectoryLock).
+public class GuideRepository {
+    private static final String[] FILES = FileHandler.guideFiles();
+    private static final Map<String, Guide> guidesByUsername = new LinkedHashMap<>();
+    private static volatile boolean loaded = false;
+    
+    // Load (or reload) every guide from disk
+    public static void load() {
+        DataDirectoryLock.read(() -> {
+            synchronized (GuideRepository.class) {
+                loadFromDisk();
+            }
+        });
+    }
+    
+    private static void loadFromDisk() {
+        guidesByUsername.clear();
+        UsernameIndex.clearRole("Guide");
+        for (Guide guide : FileHandler.loadGuides()) {
+            guidesByUsername.put(guide.getUsername(), guide);
+            UsernameIndex.register(guide.getUsername(), "Guide");
+        }
+        DataDirectoryLock.markSeen(FILES);
+        loaded = true;
+    }
+    
+    // A file stat unless a reload is due. Takes the data lock, so callers not already
+    // holding it must call this before taking our monitor (lock order).
+    private static void refresh() {
+        if (loaded && !DataDirectoryLock.isStale(FILES)) {
+            return;
+        }
+        DataDirectoryLock.read(() -> {
+            synchronized (GuideRepository.class) {
+                if (!loaded || DataDirectoryLock.isStale(FILES)) {
+                    loadFromDisk();
+                }
+            }
+        });
+    }
+    
+    public static Guide findByUsername(String username) {
+        refresh();
+        synchronized (GuideRepository.class) {
+            return guidesByUsername.get(username);
+        }
+    }
+    
+    public static boolean exists(String username) {
+        refresh();
+        synchronized (GuideRepository.class) {
+            return guidesByUsername.containsKey(username);
+        }
+    }
+    
+    public static List<Guide> findAll() {
+        refresh();
+        synchronized (GuideRepository.class) {
+            return new ArrayList<>(guidesByUsername.values());
+        }
+    }
+    
+    public static int count() {
+        refresh();
+        synchronized (GuideRepository.class) {
+            return guidesByUsername.size();
+        }
+    }
+    
+    // New guides are appended to the file, no rewrite needed.
+    // Writers refresh under the exclusive lock first, so a full rewrite never drops
+    // changes another instance made in the meantime.
+    public static void add(Guide guide) {
+        DataDirectoryLock.write(() -> {
+            synchronized (GuideRepository.class) {
+                refresh();
+                guidesByUsername.put(guide.getUsername(), guide);
+                UsernameIndex.register(guide.getUsername(), "Guide");
+                FileHandler.saveGuide(guide);
+            }
+        });
+    }
+    
+    // Edit a stored guide's profile under the exclusive lock; null if the guide is gone.
+    // The file is written from an edited copy, and the stored guide is only changed once
+    // that write has returned, so a failed save leaves it as it was.
+    public static Guide update(String username, Consumer<Guide> change) {
+        return DataDirectoryLock.write(() -> {
+            synchronized (GuideRepository.class) {
+                refresh();
+                Guide stored = guidesByUsername.get(username);
+                if (stored == null) {
+                    return null;
+                }
+                Guide edited = stored.copy();
+                change.accept(edited);
+                List<Guide> guides = new ArrayList<>(guidesByUsername.values());
+                guides.set(guides.indexOf(stored), edited);
+                FileHandler.saveAllGuides(guides);
+                change.accept(stored);
+                return stored;
+            }
+        });
+    }
+    
+    public static void delete(String username) {
+        DataDirectoryLock.write(() -> {
+            synchronized (GuideRepository.class) {
+                refresh();
+                if (guidesByUsername.remove(username) != null) {
+                    UsernameIndex.unregister(username);
+                    persist();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Total earnings are derived from the booking store (BookingRepository.guideEarnings).
+     * This copies the current totals onto the given guides, and onto the stored guides with
+     * the same usernames, under our lock; nothing is written to guides.txt. The totals are
+     * looked up before our monitor is taken, so the booking store is never entered with it held.
+     */
+    public static void refreshEarnings(Collection<Guide> guides) {
+        Map<String, Double> earnings = earningsOf(guides);
+        refresh();
+        synchronized (GuideRepository.class) {
+            for (Guide guide : guides) {
+                guide.setTotalEarnings(earnings.get(guide.getUsername()));
+                Guide stored = guidesByUsername.get(guide.getUsername());
+                if (stored != null && stored != guide) {
+                    stored.setTotalEarnings(earnings.get(guide.getUsername()));
+                }
+            }
+        }
+    }
+    
+    // Copy the derived totals into guides.txt; called on logout and on exit. The file is
+    // rewritten only if some total actually changed, so booking changes never rewrite it.
+    public static void flushEarnings() {
+        Map<String, Double> earnings = earningsOf(findAll());
+        DataDirectoryLock.write(() -> {
+            synchronized (GuideRepository.class) {
+                refresh();
+                boolean changed = false;
+                for (Guide guide : guidesByUsername.values()) {
+                    Double earned = earnings.get(guide.getUsername());
+                    if (earned != null && earned != guide.getTotalEarnings()) {
+                        guide.setTotalEarnings(earned);
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    persist();
+                }
+            }
+        });
+    }
+    
+    private static Map<String, Double> earningsOf(Collection<Guide> guides) {
+        Map<String, Double> earnings = new HashMap<>();
+        for (Guide guide : guides) {
+            earnings.put(guide.getUsername(), BookingRepository.guideEarnings(guide.getUsername()));
+        }
+        return earnings;
+    }
+    
+    // Single write path for the guides file
+    private static void persist() {
+        FileHandler.saveAllGuides(new ArrayList<>(guidesByUsername.values()));
+    }
+}
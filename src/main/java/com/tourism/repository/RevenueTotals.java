@@ -0,0 +1,40 @@
+package com.tourism.repository;
+
+// Running revenue totals over all bookings, kept up to date from booking changes.
+// Only touched from BookingRepository while it holds its lock.
+class RevenueTotals {
+    private static final double COMMISSION_RATE = 0.30;
+    
+    // Paid (confirmed/completed) booking prices in cents, and the part of it that has a guide
+    private static long paidCents = 0;
+    private static long guidedPaidCents = 0;
+    
+    static void clear() {
+        paidCents = 0;
+        guidedPaidCents = 0;
+    }
+    
+    // Move a booking's contribution from its old state to its new one (either may be null)
+    static void apply(BookingSnapshot before, BookingSnapshot after) {
+        if (before != null && before.isPaid()) {
+            paidCents -= before.priceCents;
+            if (before.hasGuide()) {
+                guidedPaidCents -= before.priceCents;
+            }
+        }
+        if (after != null && after.isPaid()) {
+            paidCents += after.priceCents;
+            if (after.hasGuide()) {
+                guidedPaidCents += after.priceCents;
+            }
+        }
+    }
+    
+    static double grossRevenue() {
+        return paidCents / 100.0;
+    }
+    
+    static double guideCommissions() {
+        return guidedPaidCents * COMMISSION_RATE / 100.0;
+    }
+}
@@ -0,0 +1,148 @@
+package com.tourism.repository;
+
+import com.tourism.models.Tourist;
+import com.tourism.utils.DataDirectoryLock;
+import com.tourism.utils.FileHandler;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+// Process-wide tourist store: tourists.txt is parsed once and served from memory afterwards.
+// It is parsed again only when another instance has written it (see DataDirectoryLock).
+public class TouristRepository {
+    private static final String[] FILES = FileHandler.touristFiles();
+    private static final Map<String, Tourist> touristsByUsername = new LinkedHashMap<>();
+    // Running count of tourists per nationality for the admin analytics
+    private static final Map<String, Integer> nationalityCounts = new HashMap<>();
+    private static volatile boolean loaded = false;
+    
+    // Load (or reload) every tourist from disk.
+    // Exclusive because loading first writes out our own queued registrations.
+    public static void load() {
+        DataDirectoryLock.write(() -> {
+            synchronized (TouristRepository.class) {
+                loadFromDisk();
+            }
+        });
+    }
+    
+    private static void loadFromDisk() {
+        touristsByUsername.clear();
+        nationalityCounts.clear();
+        UsernameIndex.clearRole("Tourist");
+        for (Tourist tourist : FileHandler.loadTourists()) {
+            touristsByUsername.put(tourist.getUsername(), tourist);
+            nationalityCounts.merge(tourist.getNationality(), 1, Integer::sum);
+            UsernameIndex.register(tourist.getUsername(), "Tourist");
+        }
+        DataDirectoryLock.markSeen(FILES);
+        loaded = true;
+    }
+    
+    // A file stat unless a reload is due. Takes the data lock, so callers not already
+    // holding it must call this before taking our monitor (lock order).
+    private static void refresh() {
+        if (loaded && !DataDirectoryLock.isStale(FILES)) {
+            return;
+        }
+        DataDirectoryLock.write(() -> {
+            synchronized (TouristRepository.class) {
+                if (!loaded || DataDirectoryLock.isStale(FILES)) {
+                    loadFromDisk();
+                }
+            }
+        });
+    }
+    
+    public static Tourist findByUsername(String username) {
+        refresh();
+        synchronized (TouristRepository.class) {
+            return touristsByUsername.get(username);
+        }
+    }
+    
+    public static boolean exists(String username) {
+        refresh();
+        synchronized (TouristRepository.class) {
+            return touristsByUsername.containsKey(username);
+        }
+    }
+    
+    public static List<Tourist> findAll() {
+        refresh();
+        synchronized (TouristRepository.class) {
+            return new ArrayList<>(touristsByUsername.values());
+        }
+    }
+    
+    public static Map<String, Integer> countByNationality() {
+        refresh();
+        synchronized (TouristRepository.class) {
+            return new HashMap<>(nationalityCounts);
+        }
+    }
+    
+    public static int count() {
+        refresh();
+        synchronized (TouristRepository.class) {
+            return touristsByUsername.size();
+        }
+    }
+    
+    // New tourists are appended to the file, no rewrite needed
+    // (group committed: the wait happens outside the lock so concurrent registrations share a batch)
+    public static void add(Tourist tourist) {
+        CompletableFuture<Void> saved = DataDirectoryLock.write(() -> {
+            synchronized (TouristRepository.class) {
+                refresh();
+                if (touristsByUsername.put(tourist.getUsername(), tourist) == null) {
+                    nationalityCounts.merge(tourist.getNationality(), 1, Integer::sum);
+                }
+                UsernameIndex.register(tourist.getUsername(), "Tourist");
+                return FileHandler.saveTourist(tourist);
+            }
+        });
+        FileHandler.awaitDurable(saved);
+    }
+    
+    // Persist changes made to a tourist (e.g. total spent).
+    // Writers refresh under the exclusive lock first, so a full rewrite never drops
+    // tourists another instance registered in the meantime.
+    public static void update(Tourist tourist) {
+        DataDirectoryLock.write(() -> {
+            synchronized (TouristRepository.class) {
+                refresh();
+                touristsByUsername.put(tourist.getUsername(), tourist);
+                persist();
+            }
+        });
+    }
+    
+    /**
+     * Total spent is derived from the booking store and only copied into tourists.txt
+     * here, so booking changes never rewrite the file. Called on logout and on exit;
+     * the file is rewritten only if some total actually changed.
+     */
+    public static void flushSpending() {
+        DataDirectoryLock.write(() -> {
+            synchronized (TouristRepository.class) {
+                refresh();
+                boolean changed = false;
+                for (Tourist tourist : touristsByUsername.values()) {
+                    double spent = BookingRepository.touristSpending(tourist.getUsername());
+                    if (spent != tourist.getTotalSpent()) {
+                        tourist.setTotalSpent(spent);
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    persist();
+                }
+            }
+        });
+    }
+    
+    // Single write path for the tourists file
+    private static void persist() {
+        FileHandler.saveAllTourists(new ArrayList<>(touristsByUsername.values()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.tourism.repository;
+
+import java.util.*;
+
+// Per-tourist spending, kept up to date from booking changes.
+// Only touched from BookingRepository while it holds its lock.
+class TouristSpending {
+    // Sum of paid booking prices in cents, so repeated updates never drift
+    private static final Map<String, Long> paidCentsByTourist = new HashMap<>();
+    
+    static void clear() {
+        paidCentsByTourist.clear();
+    }
+    
+    // Move a booking's contribution from its old state to its new one (either may be null)
+    static void apply(BookingSnapshot before, BookingSnapshot after) {
+        if (before != null && before.isPaid()) {
+            add(before.touristUsername, -before.priceCents);
+        }
+        if (after != null && after.isPaid()) {
+            add(after.touristUsername, after.priceCents);
+        }
+    }
+    
+    static double spentBy(String touristUsername) {
+        return paidCentsByTourist.getOrDefault(touristUsername, 0L) / 100.0;
+    }
+    
+    private static void add(String touristUsername, long cents) {
+        long total = paidCentsByTourist.getOrDefault(touristUsername, 0L) + cents;
+        if (total == 0) {
+            paidCentsByTourist.remove(touristUsername);
+        } else {
+            paidCentsByTourist.put(touristUsername, total);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tourism.repository;
+
+import java.util.*;
+
+// Username -> role index shared by tourists and guides.
+// Usernames are unique across both roles, so login and the duplicate check in
+// registration need a single hash lookup instead of searching each user store.
+public class UsernameIndex {
+    private static final Map<String, String> rolesByUsername = new HashMap<>();
+    
+    // Returns "Tourist", "Guide" or null if the username is free
+    public static String roleOf(String username) {
+        ensureLoaded();
+        synchronized (UsernameIndex.class) {
+            return rolesByUsername.get(username);
+        }
+    }
+    
+    public static boolean isTaken(String username) {
+        ensureLoaded();
+        synchronized (UsernameIndex.class) {
+            return rolesByUsername.containsKey(username);
+        }
+    }
+    
+    // The stores fill the index when they load; touch them outside our own lock
+    // so the lock order is always repository -> index
+    private static void ensureLoaded() {
+        TouristRepository.count();
+        GuideRepository.count();
+    }
+    
+    static synchronized void register(String username, String role) {
+        rolesByUsername.put(username, role);
+    }
+    
+    static synchronized void unregister(String username) {
+        rolesByUsername.remove(username);
+    }
+    
+    // Drop every entry of one role before that store is reloaded
+    static synchronized void clearRole(String role) {
+        rolesByUsername.values().removeIf(role::equals);
+    }
+}
@@ -0,0 +1,47 @@
+package com.tourism.services;
+
+import com.tourism.repository.BookingRepository;
+import com.tourism.repository.GuideRepository;
+import com.tourism.repository.TouristRepository;
+import java.util.Map;
+
+/**
+ * Admin analytics read from the running counters the repositories maintain.
+ * Booking and registration changes update those counters as they happen, so taking a
+ * snapshot costs O(nationalities + attractions) no matter how many bookings exist.
+ */
+public class AnalyticsService {
+    
+    public static class Snapshot {
+        private final Map<String, Integer> touristsByNationality;
+        private final Map<String, Integer> bookingsByAttraction;
+        private final double grossRevenue;
+        private final double guideCommissions;
+        private final int totalBookings;
+        private final int totalTourists;
+        private final int totalGuides;
+        
+        private Snapshot() {
+            this.touristsByNationality = TouristRepository.countByNationality();
+            this.bookingsByAttraction = BookingRepository.countByAttraction();
+            this.grossRevenue = BookingRepository.grossRevenue();
+            this.guideCommissions = BookingRepository.guideCommissions();
+            this.totalBookings = BookingRepository.count();
+            this.totalTourists = TouristRepository.count();
+            this.totalGuides = GuideRepository.count();
+        }
+        
+        public Map<String, Integer> getTouristsByNationality() { return touristsByNationality; }
+        public Map<String, Integer> getBookingsByAttraction() { return bookingsByAttraction; }
+        public double getGrossRevenue() { return grossRevenue; }
+        public double getGuideCommissions() { return guideCommissions; }
+        public double getNetRevenue() { return grossRevenue - guideCommissions; }
+        public int getTotalBookings() { return totalBookings; }
+        public int getTotalTourists() { return totalTourists; }
+        public int getTotalGuides() { return totalGuides; }
+    }
+    
+    public static Snapshot snapshot() {
+        return new Snapshot();
+    }
+}
@@ -0,0 +1,59 @@
+package com.tourism.services;
+
+import com.tourism.models.Admin;
+import com.tourism.models.Guide;
+import com.tourism.models.Person;
+import com.tourism.models.Tourist;
+import com.tourism.repository.GuideRepository;
+import com.tourism.repository.TouristRepository;
+import com.tourism.repository.UsernameIndex;
+import com.tourism.utils.LatencyHistogram;
+import com.tourism.utils.Metrics;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Login without any UI, shared by the login screen and headless drivers.
+ * The stores may still be loading, so desktop screens call it on the data thread.
+ */
+public class AuthenticationService {
+    private static final LatencyHistogram LOGIN_TIME = Metrics.timer("tourism_login_seconds");
+    private static final LongAdder LOGIN_SUCCESSES = Metrics.counter("tourism_logins_total{result=\"success\"}");
+    private static final LongAdder LOGIN_FAILURES = Metrics.counter("tourism_logins_total{result=\"failure\"}");
+
+    // The user with these credentials, or null
+    public static Person authenticate(String username, String password) {
+        long start = System.nanoTime();
+        Person user = checkCredentials(username, password);
+        LOGIN_TIME.record(System.nanoTime() - start);
+        (user != null ? LOGIN_SUCCESSES : LOGIN_FAILURES).increment();
+        return user;
+    }
+
+    private static Person checkCredentials(String username, String password) {
+        // Check admin login (hardcoded)
+        if ("Prapanna".equals(username) && "123".equals(password)) {
+            return new Admin(username, password, "Prapanna Admin", "admin@tourism.com", "+977-9999999");
+        }
+
+        // One index lookup tells us which store holds the username
+        String role = UsernameIndex.roleOf(username);
+
+        // Check tourist login
+        if ("Tourist".equals(role)) {
+            Tourist tourist = TouristRepository.findByUsername(username);
+            if (tourist != null && tourist.getPassword().equals(password)) {
+                return tourist;
+            }
+        }
+
+        // Check guide login
+        if ("Guide".equals(role)) {
+            Guide guide = GuideRepository.findByUsername(username);
+            if (guide != null && guide.getPassword().equals(password)) {
+                return guide;
+            }
+        }
+
+        return null;
+    }
+}
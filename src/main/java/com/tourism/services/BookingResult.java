@@ -0,0 +1,48 @@
+package com.tourism.services;
+
+import com.tourism.models.Booking;
+import java.util.function.Function;
+
+/**
+ * What a BookingService operation did. Only SAVED changed anything; every other status
+ * comes with a message a frontend can show as is. A CONFLICT carries the latest stored
+ * version of the booking, and BookingService.applyToLatest() runs the rejected operation
+ * again on top of it, rules included.
+ */
+public class BookingResult {
+    public enum Status { SAVED, UNCHANGED, INVALID, NOT_FOUND, CONFLICT, NO_SEATS }
+
+    private final Status status;
+    private final Booking booking;
+    private final String message;
+    private final Function<Booking, BookingResult> operation;
+
+    private BookingResult(Status status, Booking booking, String message, Function<Booking, BookingResult> operation) {
+        this.status = status;
+        this.booking = booking;
+        this.message = message;
+        this.operation = operation;
+    }
+
+    static BookingResult saved(Booking booking) {
+        return new BookingResult(Status.SAVED, booking, "", null);
+    }
+
+    static BookingResult conflict(Booking latest, Function<Booking, BookingResult> operation) {
+        return new BookingResult(Status.CONFLICT, latest, "Booking " + latest.getBookingId() +
+            " was changed by another user after you opened it.", operation);
+    }
+
+    static BookingResult failed(Status status, String message) {
+        return new BookingResult(status, null, message, null);
+    }
+
+    public Status getStatus() { return status; }
+    public boolean isSaved() { return status == Status.SAVED; }
+    // The saved booking, or the latest stored version on CONFLICT; null otherwise
+    public Booking getBooking() { return booking; }
+    public String getMessage() { return message; }
+
+    // The rejected call with its arguments, waiting for the booking to apply it to
+    Function<Booking, BookingResult> getOperation() { return operation; }
+}
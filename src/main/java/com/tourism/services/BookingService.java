@@ -0,0 +1,216 @@
+package com.tourism.services;
+
+import com.tourism.models.Attraction;
+import com.tourism.models.Booking;
+import com.tourism.models.Guide;
+import com.tourism.repository.AttractionRepository;
+import com.tourism.repository.BookingRepository;
+import com.tourism.repository.GuideRepository;
+import com.tourism.services.BookingResult.Status;
+import com.tourism.utils.LatencyHistogram;
+import com.tourism.utils.Metrics;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Booking operations without any UI: the rules, the save and the guide bookkeeping that
+ * goes with it. Each method blocks until the change is durable and returns a BookingResult
+ * instead of showing dialogs, so the dashboards, batch jobs and load tests all go through
+ * the same code. Desktop screens call it on the data thread (see DataAccessService).
+ *
+ * Changes to an existing booking are made on a copy of the version the caller read and
+ * stored with BookingRepository.update, so they fail with CONFLICT if someone else saved
+ * the booking in the meantime. Guide earnings are read from the booking store's running totals.
+ */
+public class BookingService {
+    private static final OperationMetrics CREATE = new OperationMetrics("create");
+    private static final OperationMetrics MODIFY = new OperationMetrics("modify");
+    private static final OperationMetrics CANCEL = new OperationMetrics("cancel");
+    private static final OperationMetrics ASSIGN_GUIDE = new OperationMetrics("assign_guide");
+    private static final OperationMetrics CHANGE_STATUS = new OperationMetrics("change_status");
+    private static final OperationMetrics DELETE = new OperationMetrics("delete");
+    private static final OperationMetrics APPLY_TO_LATEST = new OperationMetrics("apply_to_latest");
+
+    public static BookingResult create(String touristUsername, String attractionName, LocalDate trekDate) {
+        return CREATE.time(() -> {
+            if (attractionName == null || trekDate == null) {
+                return BookingResult.failed(Status.INVALID, "Please select attraction and date!");
+            }
+            if (trekDate.isBefore(LocalDate.now())) {
+                return BookingResult.failed(Status.INVALID, "Cannot book for past dates!");
+            }
+            Attraction attraction = AttractionRepository.findByName(attractionName);
+            if (attraction == null || !attraction.isActive()) {
+                return BookingResult.failed(Status.INVALID, attractionName + " is not open for booking.");
+            }
+
+            Booking booking = new Booking(touristUsername, attraction, trekDate);
+            booking.confirmBooking();
+            if (BookingRepository.add(booking) != BookingRepository.Outcome.SAVED) {
+                return noSeats(attractionName, trekDate);
+            }
+            return BookingResult.saved(booking);
+        });
+    }
+
+    // Move a booking to another attraction or date, or change its notes
+    public static BookingResult modify(Booking original, String attractionName, LocalDate trekDate, String notes) {
+        return MODIFY.time(() -> {
+            if (attractionName == null || trekDate == null) {
+                return BookingResult.failed(Status.INVALID, "Please select both attraction and date!");
+            }
+            if (!original.canBeModified()) {
+                return BookingResult.failed(Status.INVALID, "This booking cannot be modified! Bookings can only be modified at least 3 days before the trek date.");
+            }
+            if (trekDate.isBefore(LocalDate.now())) {
+                return BookingResult.failed(Status.INVALID, "Cannot set trek date in the past!");
+            }
+            if (trekDate.isBefore(LocalDate.now().plusDays(3))) {
+                return BookingResult.failed(Status.INVALID, "Trek date must be at least 3 days from today!");
+            }
+            Attraction attraction = AttractionRepository.findByName(attractionName);
+            if (attraction == null || !attraction.isActive()) {
+                return BookingResult.failed(Status.INVALID, attractionName + " is not open for booking.");
+            }
+
+            String newNotes = notes == null ? "" : notes.trim();
+            if (attractionName.equals(original.getAttraction().getName()) && trekDate.equals(original.getTrekDate())
+                    && newNotes.equals(original.getNotes().trim())) {
+                return BookingResult.failed(Status.UNCHANGED, "No changes were made to the booking.");
+            }
+
+            return save(original, booking -> {
+                booking.setAttraction(attraction);
+                booking.setTrekDate(trekDate);
+                booking.setNotes(newNotes);
+            }, latest -> modify(latest, attractionName, trekDate, notes));
+        });
+    }
+
+    public static BookingResult cancel(Booking original) {
+        return CANCEL.time(() -> {
+            if (!original.canBeCancelled()) {
+                return BookingResult.failed(Status.INVALID, "This booking cannot be cancelled! Bookings can only be cancelled at least 7 days before the trek date.");
+            }
+            return save(original, Booking::cancelBooking, BookingService::cancel);
+        });
+    }
+
+    public static BookingResult assignGuide(Booking original, String guideUsername) {
+        return ASSIGN_GUIDE.time(() -> {
+            if (guideUsername == null || !GuideRepository.exists(guideUsername)) {
+                return BookingResult.failed(Status.INVALID, "Please select a guide!");
+            }
+            return save(original, booking -> booking.setGuideUsername(guideUsername), latest -> assignGuide(latest, guideUsername));
+        });
+    }
+
+    public static BookingResult changeStatus(Booking original, String status) {
+        return CHANGE_STATUS.time(() -> {
+            if (status == null || status.isEmpty()) {
+                return BookingResult.failed(Status.INVALID, "Please select a status!");
+            }
+            return save(original, booking -> booking.setStatus(status), latest -> changeStatus(latest, status));
+        });
+    }
+
+    // Permanent removal; callers decide who may delete what (tourists only cancelled bookings)
+    public static BookingResult delete(int bookingId) {
+        return DELETE.time(() -> {
+            Booking removed = BookingRepository.findById(bookingId);
+            if (removed == null) {
+                return notFound();
+            }
+            BookingRepository.delete(bookingId);
+            syncGuides(removed, null);
+            return BookingResult.saved(removed);
+        });
+    }
+
+    // Run an operation that failed with CONFLICT again on the version it conflicted with.
+    // It goes through the same checks, so it can now be INVALID or UNCHANGED instead.
+    public static BookingResult applyToLatest(BookingResult conflict) {
+        return APPLY_TO_LATEST.time(() -> {
+            if (conflict.getStatus() != Status.CONFLICT) {
+                throw new IllegalArgumentException("Not a conflict: " + conflict.getStatus());
+            }
+            return conflict.getOperation().apply(conflict.getBooking());
+        });
+    }
+
+    // Store the change made on a copy of original; operation is the calling method with its
+    // arguments, kept on a CONFLICT so applyToLatest can repeat it with its checks
+    private static BookingResult save(Booking original, Consumer<Booking> change, Function<Booking, BookingResult> operation) {
+        Booking edited = original.copy();
+        change.accept(edited);
+        switch (BookingRepository.update(edited)) {
+            case SAVED:
+                syncGuides(original, edited);
+                return BookingResult.saved(edited);
+            case CONFLICT:
+                Booking latest = BookingRepository.findById(original.getBookingId());
+                return latest != null ? BookingResult.conflict(latest, operation) : notFound();
+            case NO_SEATS:
+                return noSeats(edited.getAttraction().getName(), edited.getTrekDate());
+            default:
+                return notFound();
+        }
+    }
+
+    // Guide earnings are derived from the booking store; copy the new totals onto the guides
+    // involved. Memory only: guides.txt is brought up to date by GuideRepository.flushEarnings.
+    private static void syncGuides(Booking before, Booking after) {
+        Set<String> usernames = new LinkedHashSet<>();
+        if (!before.getGuideUsername().isEmpty()) {
+            usernames.add(before.getGuideUsername());
+        }
+        if (after != null && !after.getGuideUsername().isEmpty()) {
+            usernames.add(after.getGuideUsername());
+        }
+
+        List<Guide> involved = new ArrayList<>();
+        for (String username : usernames) {
+            Guide guide = GuideRepository.findByUsername(username);
+            if (guide != null) {
+                involved.add(guide);
+            }
+        }
+        if (!involved.isEmpty()) {
+            GuideRepository.refreshEarnings(involved);
+        }
+    }
+
+    private static BookingResult noSeats(String attractionName, LocalDate trekDate) {
+        return BookingResult.failed(Status.NO_SEATS, attractionName + " is fully booked on " + trekDate + ".");
+    }
+
+    private static BookingResult notFound() {
+        return BookingResult.failed(Status.NOT_FOUND, "This booking has been deleted by another user.");
+    }
+
+    // Latency and outcome counts of one operation (see Metrics)
+    private static final class OperationMetrics {
+        private final LatencyHistogram latency;
+        private final LongAdder[] outcomes = new LongAdder[Status.values().length];
+
+        private OperationMetrics(String operation) {
+            latency = Metrics.timer("tourism_booking_operation_seconds{operation=\"" + operation + "\"}");
+            for (Status status : Status.values()) {
+                outcomes[status.ordinal()] = Metrics.counter("tourism_booking_operations_total{operation=\"" +
+                    operation + "\",status=\"" + status + "\"}");
+            }
+        }
+
+        BookingResult time(Supplier<BookingResult> operation) {
+            long start = System.nanoTime();
+            BookingResult result = operation.get();
+            latency.record(System.nanoTime() - start);
+            outcomes[result.getStatus().ordinal()].increment();
+            return result;
+        }
+    }
+}
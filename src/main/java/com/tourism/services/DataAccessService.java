@@ -0,0 +1,101 @@
+package com.tourism.services;
+
+import com.tourism.utils.DialogUtils;
+import com.tourism.utils.Logger;
+import javafx.application.Platform;
+import javafx.scene.control.ProgressIndicator;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs repository loads and saves off the JavaFX Application Thread.
+ *
+ * All work goes through one background thread, so saves reach the data files in the
+ * order they were submitted and a load never overtakes an earlier save. Results are
+ * handed back on the FX thread through Platform.runLater. While any task is in flight
+ * the progress indicator of the current screen is shown.
+ */
+public class DataAccessService {
+    private static final Logger LOG = Logger.get(DataAccessService.class);
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "data-access");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Executor FX_THREAD = Platform::runLater;
+    private static final AtomicInteger pendingTasks = new AtomicInteger();
+
+    private static volatile ProgressIndicator progressIndicator;
+
+    // Each dashboard registers its own indicator when it is loaded
+    public static void setProgressIndicator(ProgressIndicator indicator) {
+        progressIndicator = indicator;
+        updateProgress();
+    }
+
+    // Run a load or save on the data thread
+    public static <T> CompletableFuture<T> submit(Supplier<T> task) {
+        pendingTasks.incrementAndGet();
+        updateProgress();
+        return CompletableFuture.supplyAsync(task, executor)
+            .whenComplete((result, error) -> {
+                pendingTasks.decrementAndGet();
+                updateProgress();
+            });
+    }
+
+    public static CompletableFuture<Void> submit(Runnable task) {
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the task in the background, then passes its result to onSuccess on the FX thread.
+     * If the task fails the error is logged and shown to the user instead.
+     */
+    public static <T> CompletableFuture<Void> run(Supplier<T> task, Consumer<T> onSuccess, String errorMessage) {
+        return submit(task)
+            .thenAcceptAsync(onSuccess, FX_THREAD)
+            .exceptionally(error -> {
+                reportError(error, errorMessage);
+                return null;
+            });
+    }
+
+    public static CompletableFuture<Void> run(Runnable task, Runnable onSuccess, String errorMessage) {
+        return run(() -> {
+            task.run();
+            return null;
+        }, ignored -> onSuccess.run(), errorMessage);
+    }
+
+    // Wait for queued saves before the application exits
+    public static void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOG.error("Timed out waiting for pending saves");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reportError(Throwable error, String errorMessage) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        LOG.error(errorMessage + ": " + cause.getMessage(), cause);
+        Platform.runLater(() -> DialogUtils.showError("Error", errorMessage));
+    }
+
+    private static void updateProgress() {
+        ProgressIndicator indicator = progressIndicator;
+        if (indicator == null) {
+            return;
+        }
+        Platform.runLater(() -> indicator.setVisible(pendingTasks.get() > 0));
+    }
+}
@@ -0,0 +1,40 @@
+package com.tourism.tools;
+
+import com.tourism.utils.FileHandler;
+
+// Command-line converter between the text data files and the binary layout.
+// Usage: java -cp <app.jar> com.tourism.tools.DataMigrationTool to-binary|to-text
+// Run it from the directory that contains data/, with the application stopped.
+public class DataMigrationTool {
+    
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            printUsage();
+            System.exit(1);
+        }
+        
+        if (FileHandler.isBinaryStorage()) {
+            System.err.println("Run the migration without -Dtourism.storage=binary");
+            System.exit(1);
+        }
+        
+        switch (args[0]) {
+            case "to-binary":
+                System.out.println("Exported " + FileHandler.exportToBinary() + " to data/*.bin");
+                System.out.println("Start the application with -Dtourism.storage=binary to use them");
+                break;
+            case "to-text":
+                System.out.println("Imported " + FileHandler.importFromBinary() + " into data/*.txt");
+                break;
+            default:
+                printUsage();
+                System.exit(1);
+        }
+    }
+    
+    private static void printUsage() {
+        System.err.println("Usage: DataMigrationTool to-binary|to-text");
+        System.err.println("  to-binary  convert data/*.txt into the compact data/*.bin layout");
+        System.err.println("  to-text    convert data/*.bin back into data/*.txt");
+    }
+}
@@ -0,0 +1,272 @@
+package com.tourism.tools;
+
+import com.tourism.models.Attraction;
+import com.tourism.models.Booking;
+import com.tourism.models.Guide;
+import com.tourism.models.Tourist;
+import com.tourism.utils.BookingIdAllocator;
+import com.tourism.utils.FileHandler;
+import java.io.File;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.IntFunction;
+
+// Command-line generator of synthetic data directories for load, soak and benchmark runs.
+// Usage: java -cp <app.jar> com.tourism.tools.DatasetGenerator --dir <empty dir> [options]
+// Records are produced one at a time and streamed through the FileHandler writers, so the
+// files have the exact application format (text, or binary with -Dtourism.storage=binary)
+// and tens of millions of bookings need no more memory than a few thousand. Only the
+// attractions, their seats taken per day and the running spending/earnings totals are kept
+// in memory. Bookings respect each attraction's capacity per trek date, like the app does.
+public class DatasetGenerator {
+    private static final String[] FIRST_NAMES = {
+        "Aarav", "Sita", "Ram", "Maya", "Bikash", "Anita", "John", "Emma", "Liam", "Olivia",
+        "Wei", "Mei", "Hans", "Sophie", "Yuki", "Haruto", "Priya", "Arjun", "Lucas", "Chloe"
+    };
+    private static final String[] LAST_NAMES = {
+        "Shrestha", "Sharma", "Gurung", "Tamang", "Rai", "Thapa", "Smith", "Brown", "Wang", "Li",
+        "Müller", "Schmidt", "Martin", "Bernard", "Tanaka", "Sato", "Patel", "Singh", "Johnson", "Lee"
+    };
+    private static final String[] LANGUAGES = { "English", "Nepali", "Hindi", "Chinese", "German", "French", "Japanese" };
+    private static final String[] TREKS = {
+        "Everest Base Camp", "Annapurna Circuit", "Langtang Valley", "Manaslu Circuit", "Upper Mustang",
+        "Gokyo Lakes", "Poon Hill", "Mardi Himal", "Kanchenjunga Base Camp", "Rara Lake", "Tsum Valley",
+        "Makalu Base Camp", "Chitwan Jungle Safari", "Pokhara Lakeside", "Kathmandu Heritage Walk",
+        "Bandipur Village", "Lumbini Pilgrimage", "Nagarkot Sunrise"
+    };
+    private static final String[] LOCATIONS = { "Solukhumbu", "Kaski", "Rasuwa", "Gorkha", "Mustang", "Taplejung", "Mugu", "Chitwan", "Kathmandu" };
+    private static final String[] DIFFICULTIES = { "Easy", "Medium", "Hard" };
+
+    private final int tourists;
+    private final int guides;
+    private final int attractionCount;
+    private final int bookings;
+    private final int year;
+    private final double festivalShare;
+    private final double guidedShare;
+    private final Random random;
+    private final WeightedChoice<String> nationalities;
+    private final WeightedChoice<String> statuses;
+    private final WeightedChoice<Integer> popularity;
+    // Seats held by bookings that are not cancelled, per attraction and trek date. Only pairs
+    // that get a booking have an entry, so a million attractions cost nothing up front.
+    private final Map<Long, Integer> seatsTaken = new HashMap<>();
+    // Bookings each attraction can still take (its seats over one year); the rest go to the
+    // next attraction, so spilling past full dates stays within about a year
+    private long[] seatsLeft;
+
+    public static void main(String[] args) {
+        ToolOptions options = ToolOptions.parse(args);
+        if (options == null || !options.has("dir")) {
+            printUsage();
+            System.exit(1);
+        }
+
+        // Must be set before FileHandler is first used
+        File dir = new File(options.get("dir", null));
+        String[] existing = dir.list();
+        if (existing != null && existing.length > 0) {
+            System.err.println(dir + " is not empty; generate into a new directory");
+            System.exit(1);
+        }
+        System.setProperty("tourism.data.dir", dir.getPath());
+
+        try {
+            DatasetGenerator generator = new DatasetGenerator(options);
+            long start = System.nanoTime();
+            generator.generate();
+            long seconds = Math.max(1, (System.nanoTime() - start) / 1_000_000_000L);
+            System.out.println("Generated " + generator.tourists + " tourists, " + generator.guides + " guides, " +
+                generator.attractionCount + " attractions and " + generator.bookings + " bookings in " + dir +
+                " (" + seconds + " s)");
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(1);
+        }
+    }
+
+    private DatasetGenerator(ToolOptions options) {
+        tourists = options.getInt("tourists", 10_000, 1);
+        guides = options.getInt("guides", 200, 0);
+        attractionCount = options.getInt("attractions", 50, 1);
+        bookings = options.getInt("bookings", 100_000, 0);
+        year = options.getInt("year", LocalDate.now().getYear());
+        festivalShare = options.getDouble("festival-share", 0.5);
+        guidedShare = options.getDouble("guided-share", 0.7);
+        random = new Random(options.getInt("seed", 42));
+        nationalities = WeightedChoice.parse(options.get("nationalities",
+            "Nepal:30,India:25,China:15,USA:10,UK:8,Germany:7,Japan:5"));
+        statuses = WeightedChoice.parse(options.get("statuses",
+            "Confirmed:65,Completed:20,Pending:10,Cancelled:5"));
+        popularity = WeightedChoice.zipf(attractionCount, options.getDouble("skew", 1.1));
+    }
+
+    // Bookings first, so the tourists' spending and the guides' earnings written after them
+    // match what the booking store will compute
+    private void generate() {
+        List<Attraction> attractions = new ArrayList<>(attractionCount);
+        for (int i = 0; i < attractionCount; i++) {
+            attractions.add(attraction(i));
+        }
+        FileHandler.saveAllAttractions(attractions);
+        reserveSeatCounts(attractions);
+
+        double[] spent = new double[tourists];
+        double[] earned = new double[guides];
+        FileHandler.saveAllBookings(generated(bookings, i -> booking(i, attractions, spent, earned)));
+        BookingIdAllocator.resetMark(bookings + 1);
+
+        FileHandler.saveAllTourists(generated(tourists, i -> tourist(i, spent[i])));
+        FileHandler.saveAllGuides(generated(guides, i -> guide(i, earned[i])));
+    }
+
+    private Attraction attraction(int index) {
+        String name = TREKS[index % TREKS.length];
+        if (index >= TREKS.length) {
+            name += " " + (index / TREKS.length + 1);
+        }
+        String difficulty = DIFFICULTIES[random.nextInt(DIFFICULTIES.length)];
+        boolean high = !"Easy".equals(difficulty) && random.nextBoolean();
+        return new Attraction(name, LOCATIONS[random.nextInt(LOCATIONS.length)], high ? "High" : "Low",
+            difficulty, 50 + 10 * random.nextInt(150));
+    }
+
+    // Every booking gets a seat when the year has at least as many seats as bookings
+    private void reserveSeatCounts(List<Attraction> attractions) {
+        int days = LocalDate.of(year, 1, 1).lengthOfYear();
+        seatsLeft = new long[attractionCount];
+        long seats = 0;
+        for (int i = 0; i < attractionCount; i++) {
+            seatsLeft[i] = (long) attractions.get(i).getMaxCapacity() * days;
+            seats += seatsLeft[i];
+        }
+        if (seats < bookings) {
+            throw new IllegalArgumentException(bookings + " bookings do not fit: the attractions have " + seats +
+                " seats in " + year + "; add attractions or generate fewer bookings");
+        }
+    }
+
+    private Booking booking(int index, List<Attraction> attractions, double[] spent, double[] earned) {
+        int tourist = random.nextInt(tourists);
+        int attraction = popularity.next(random);
+        LocalDate trekDate = trekDate();
+        String status = statuses.next(random);
+
+        // A full date passes the booking on to the next date with a seat, into the next year
+        // if need be, and a fully booked attraction to the next attraction
+        if (!"Cancelled".equals(status)) {
+            while (seatsLeft[attraction] == 0) {
+                attraction = (attraction + 1) % attractionCount;
+            }
+            int capacity = attractions.get(attraction).getMaxCapacity();
+            long day = trekDate.toEpochDay();
+            while (seatsTaken.getOrDefault(seatKey(attraction, day), 0) >= capacity) {
+                day++;
+            }
+            seatsTaken.merge(seatKey(attraction, day), 1, Integer::sum);
+            seatsLeft[attraction]--;
+            trekDate = LocalDate.ofEpochDay(day);
+        }
+
+        Booking booking = new Booking(index + 1, "tourist" + tourist, attractions.get(attraction), trekDate);
+        booking.setStatus(status);
+
+        int guide = -1;
+        if (guides > 0 && !"Pending".equals(booking.getStatus()) && random.nextDouble() < guidedShare) {
+            guide = random.nextInt(guides);
+            booking.setGuideUsername("guide" + guide);
+        }
+
+        // Same rule as the booking store: only confirmed and completed bookings are paid
+        if ("Confirmed".equals(booking.getStatus()) || "Completed".equals(booking.getStatus())) {
+            spent[tourist] += booking.getTotalPrice();
+            if (guide >= 0) {
+                earned[guide] += booking.getTotalPrice() * 0.30;
+            }
+        }
+        return booking;
+    }
+
+    private static long seatKey(int attraction, long epochDay) {
+        return (long) attraction << 32 | (epochDay & 0xFFFFFFFFL);
+    }
+
+    // Festival season (August-October) gets its share of the bookings, the rest of the year the remainder
+    private LocalDate trekDate() {
+        LocalDate festivalStart = LocalDate.of(year, 8, 1);
+        LocalDate festivalEnd = LocalDate.of(year, 11, 1);
+        int festivalDays = (int) (festivalEnd.toEpochDay() - festivalStart.toEpochDay());
+        if (random.nextDouble() < festivalShare) {
+            return festivalStart.plusDays(random.nextInt(festivalDays));
+        }
+        LocalDate date = LocalDate.of(year, 1, 1).plusDays(random.nextInt(LocalDate.of(year, 1, 1).lengthOfYear() - festivalDays));
+        return date.isBefore(festivalStart) ? date : date.plusDays(festivalDays);
+    }
+
+    private Tourist tourist(int index, double spent) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        Tourist tourist = new Tourist("tourist" + index, "password" + index, first + " " + last,
+            first.toLowerCase() + "." + index + "@example.com", phone(), nationalities.next(random));
+        tourist.setTotalSpent(spent);
+        return tourist;
+    }
+
+    private Guide guide(int index, double earned) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        List<String> languages = new ArrayList<>(Arrays.asList("Nepali", "English"));
+        String extra = LANGUAGES[random.nextInt(LANGUAGES.length)];
+        if (!languages.contains(extra)) {
+            languages.add(extra);
+        }
+        Guide guide = new Guide("guide" + index, "password" + index, first + " " + last,
+            first.toLowerCase() + ".guide" + index + "@example.com", phone(), languages, 1 + random.nextInt(25));
+        guide.setTotalEarnings(earned);
+        return guide;
+    }
+
+    private String phone() {
+        return "98" + (10_000_000 + random.nextInt(90_000_000));
+    }
+
+    // Produces each record when the writer asks for it; can be iterated once
+    private static <T> Iterable<T> generated(int count, IntFunction<T> record) {
+        return () -> new Iterator<T>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public T next() {
+                if (next >= count) {
+                    throw new NoSuchElementException();
+                }
+                return record.apply(next++);
+            }
+        };
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: DatasetGenerator --dir <new or empty directory> [options]");
+        System.err.println("  --tourists N         tourists (default 10000)");
+        System.err.println("  --guides N           guides (default 200)");
+        System.err.println("  --attractions N      attractions (default 50)");
+        System.err.println("  --bookings N         bookings (default 100000)");
+        System.err.println("  --nationalities SPEC tourist nationality weights (default Nepal:30,India:25,China:15,USA:10,UK:8,Germany:7,Japan:5)");
+        System.err.println("  --skew S             attraction popularity, Zipf exponent; 0 = uniform (default 1.1)");
+        System.err.println("  --festival-share F   share of bookings in August-October (default 0.5)");
+        System.err.println("  --statuses SPEC      booking status weights (default Confirmed:65,Completed:20,Pending:10,Cancelled:5)");
+        System.err.println("  --guided-share F     share of non-pending bookings with a guide (default 0.7)");
+        System.err.println("  --year Y             season year of the trek dates (default this year)");
+        System.err.println("  --seed N             random seed; equal options and seed give equal files (default 42)");
+        System.err.println("Each attraction's capacity per trek date is respected: bookings for a full date move to");
+        System.err.println("the next date with a seat, so a high --festival-share can spill past October, and late");
+        System.err.println("December into the next year.");
+        System.err.println("Add -Dtourism.storage=binary to write the binary layout instead of text.");
+    }
+}
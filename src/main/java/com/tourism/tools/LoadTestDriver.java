@@ -0,0 +1,346 @@
+package com.tourism.tools;
+
+import com.tourism.models.Attraction;
+import com.tourism.models.Booking;
+import com.tourism.models.Guide;
+import com.tourism.models.Person;
+import com.tourism.models.Tourist;
+import com.tourism.repository.AttractionRepository;
+import com.tourism.repository.BookingRepository;
+import com.tourism.repository.GuideRepository;
+import com.tourism.repository.TouristRepository;
+import com.tourism.services.AnalyticsService;
+import com.tourism.services.AuthenticationService;
+import com.tourism.services.BookingResult;
+import com.tourism.services.BookingService;
+import com.tourism.utils.BookingIdAllocator;
+import com.tourism.utils.FileHandler;
+import com.tourism.utils.LatencyHistogram;
+import com.tourism.utils.Logger;
+import com.tourism.utils.Metrics;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Headless load test: concurrent tourist and admin sessions replay what the dashboards do,
+// through the same repositories and services, against a copy of a data directory.
+// Usage: java -cp <app.jar> com.tourism.tools.LoadTestDriver --dir <data dir> [options]
+// Every step is timed after the warmup; the report lists count, ops/s and p50/p99/max per
+// operation. Saves are durable as in the application, so the data directory changes: run
+// it on a copy made with DatasetGenerator, not on live data.
+public class LoadTestDriver {
+    private static final Logger LOG = Logger.get(LoadTestDriver.class);
+    private static final String[] STATUSES = { "Pending", "Confirmed", "Completed", "Cancelled" };
+
+    private final int touristThreads;
+    private final int adminThreads;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final long thinkMillis;
+    private final int bookingDays;
+    private final WeightedChoice<String> touristMix;
+    private final WeightedChoice<String> adminMix;
+
+    private final ConcurrentMap<String, LatencyHistogram> latencies = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, LongAdder> outcomes = new ConcurrentSkipListMap<>();
+    private List<Tourist> tourists;
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    public static void main(String[] args) {
+        ToolOptions options = ToolOptions.parse(args);
+        if (options == null || !options.has("dir")) {
+            printUsage();
+            System.exit(1);
+        }
+
+        // Must be set before FileHandler is first used
+        System.setProperty("tourism.data.dir", options.get("dir", null));
+
+        try {
+            LoadTestDriver driver = new LoadTestDriver(options);
+            driver.load();
+            driver.run(options.getInt("seed", 42));
+            if (options.has("metrics")) {
+                Metrics.exportTo(options.get("metrics", null));
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.exit(0);
+    }
+
+    private LoadTestDriver(ToolOptions options) {
+        touristThreads = options.getInt("tourists", 50);
+        adminThreads = options.getInt("admins", 2);
+        warmupNanos = options.getInt("warmup", 10) * 1_000_000_000L;
+        durationNanos = options.getInt("duration", 60) * 1_000_000_000L;
+        thinkMillis = options.getInt("think-ms", 0);
+        bookingDays = options.getInt("booking-days", 90);
+        touristMix = WeightedChoice.parse(options.get("tourist-mix", "book:50,modify:20,cancel:20,delete:10"));
+        adminMix = WeightedChoice.parse(options.get("admin-mix", "assign:45,status:45,dashboard:10"));
+        if (touristThreads < 0 || adminThreads < 0 || touristThreads + adminThreads == 0) {
+            throw new IllegalArgumentException("Need at least one tourist or admin session");
+        }
+        if (durationNanos <= 0 || warmupNanos < 0 || bookingDays < 8) {
+            throw new IllegalArgumentException("--duration must be positive and --booking-days at least 8");
+        }
+    }
+
+    // Same start-up as Main, minus the data thread
+    private void load() {
+        long start = System.nanoTime();
+        FileHandler.initializeDataFiles();
+        TouristRepository.load();
+        GuideRepository.load();
+        AttractionRepository.load();
+        BookingRepository.load();
+        tourists = TouristRepository.findAll();
+        if (tourists.isEmpty() || AttractionRepository.findAll().isEmpty()) {
+            throw new IllegalArgumentException("The data directory needs tourists and attractions; make one with DatasetGenerator");
+        }
+        System.out.println("Loaded " + tourists.size() + " tourists, " + GuideRepository.count() + " guides, " +
+            AttractionRepository.findAll().size() + " attractions and " + BookingRepository.count() +
+            " bookings in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private void run(int seed) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < touristThreads + adminThreads; i++) {
+            boolean admin = i >= touristThreads;
+            Random random = new Random(seed + i);
+            Thread thread = new Thread(() -> session(admin, random), (admin ? "admin-" : "tourist-") + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        System.out.println("Running " + touristThreads + " tourist and " + adminThreads + " admin sessions: " +
+            warmupNanos / 1_000_000_000L + " s warmup, " + durationNanos / 1_000_000_000L + " s measured");
+        threads.forEach(Thread::start);
+
+        Thread.sleep(warmupNanos / 1_000_000);
+        measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(durationNanos / 1_000_000);
+        measuring = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        TouristRepository.flushSpending();
+        GuideRepository.flushEarnings();
+        report(elapsed);
+    }
+
+    // One thread plays users one after another until the run ends
+    private void session(boolean admin, Random random) {
+        try {
+            while (running) {
+                if (admin) {
+                    adminSession(random);
+                } else {
+                    touristSession(random);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOG.error("Session failed on " + Thread.currentThread().getName(), e);
+        }
+    }
+
+    // Login, the dashboard load, then a handful of booking actions like a tourist at the desk
+    private void touristSession(Random random) throws InterruptedException {
+        Tourist account = tourists.get(random.nextInt(tourists.size()));
+        Person user = timed("login", () -> AuthenticationService.authenticate(account.getUsername(), account.getPassword()));
+        if (!(user instanceof Tourist)) {
+            count("login", "FAILED");
+            return;
+        }
+        String username = user.getUsername();
+
+        List<Attraction> attractions = timed("browse attractions", AttractionRepository::findAll);
+        List<Booking> bookings = timed("load bookings", () -> {
+            List<Booking> found = BookingRepository.findByTourist(username);
+            BookingRepository.touristSpending(username);
+            return found;
+        });
+        think();
+
+        for (int actions = 1 + random.nextInt(4); actions > 0 && running; actions--) {
+            String action = touristMix.next(random);
+            Booking booking = pick(bookings, action, random);
+            if (booking == null || "book".equals(action)) {
+                book(username, attractions, random);
+            } else if ("modify".equals(action)) {
+                Attraction attraction = attractions.get(random.nextInt(attractions.size()));
+                record("modify", timed("modify", () -> BookingService.modify(booking, attraction.getName(),
+                    trekDate(random), booking.getNotes())));
+            } else if ("cancel".equals(action)) {
+                record("cancel", timed("cancel", () -> BookingService.cancel(booking)));
+            } else {
+                record("delete", timed("delete", () -> BookingService.delete(booking.getBookingId())));
+            }
+            bookings = timed("load bookings", () -> BookingRepository.findByTourist(username));
+            think();
+        }
+    }
+
+    // The booking form checks the seats for the chosen date before it saves
+    private void book(String username, List<Attraction> attractions, Random random) {
+        Attraction attraction = attractions.get(random.nextInt(attractions.size()));
+        LocalDate date = trekDate(random);
+        int seats = timed("check seats", () -> BookingRepository.seatsLeft(attraction.getName(), date));
+        if (seats <= 0) {
+            count("book", "FULL");
+            return;
+        }
+        record("book", timed("book", () -> BookingService.create(username, attraction.getName(), date)));
+    }
+
+    // A booking the action applies to, following the dashboard rules; null if there is none
+    private static Booking pick(List<Booking> bookings, String action, Random random) {
+        List<Booking> candidates = new ArrayList<>();
+        for (Booking booking : bookings) {
+            boolean fits = "modify".equals(action) ? booking.canBeModified()
+                : "cancel".equals(action) ? booking.canBeCancelled()
+                : "delete".equals(action) && "Cancelled".equals(booking.getStatus());
+            if (fits) {
+                candidates.add(booking);
+            }
+        }
+        return candidates.isEmpty() ? null : candidates.get(random.nextInt(candidates.size()));
+    }
+
+    // An admin opens the dashboard, then assigns guides and changes statuses
+    private void adminSession(Random random) throws InterruptedException {
+        Person user = timed("login", () -> AuthenticationService.authenticate("Prapanna", "123"));
+        if (user == null) {
+            count("login", "FAILED");
+            return;
+        }
+        List<Guide> guides = dashboard();
+        think();
+
+        for (int actions = 1 + random.nextInt(10); actions > 0 && running; actions--) {
+            String action = adminMix.next(random);
+            if ("dashboard".equals(action)) {
+                guides = dashboard();
+                think();
+                continue;
+            }
+            Booking booking = timed("find booking", () -> randomBooking(random));
+            if (booking == null) {
+                count(action, "NOT_FOUND");
+            } else if ("assign".equals(action) && !guides.isEmpty()) {
+                String guide = guides.get(random.nextInt(guides.size())).getUsername();
+                record("assign guide", timed("assign guide", () -> BookingService.assignGuide(booking, guide)));
+            } else if ("status".equals(action)) {
+                String status = STATUSES[random.nextInt(STATUSES.length)];
+                record("change status", timed("change status", () -> BookingService.changeStatus(booking, status)));
+            }
+            think();
+        }
+    }
+
+    // What the admin dashboard loads when it opens
+    private List<Guide> dashboard() {
+        return timed("admin dashboard", () -> {
+            List<Guide> guides = GuideRepository.findAll();
+            AttractionRepository.findAll();
+            BookingRepository.findAll();
+            AnalyticsService.snapshot();
+            return guides;
+        });
+    }
+
+    // Ids are dense apart from deleted bookings, so a few tries nearly always find one
+    private static Booking randomBooking(Random random) {
+        int last = BookingIdAllocator.peekNext() - 1;
+        for (int attempt = 0; attempt < 5 && last > 0; attempt++) {
+            Booking booking = BookingRepository.findById(1 + random.nextInt(last));
+            if (booking != null) {
+                return booking;
+            }
+        }
+        return null;
+    }
+
+    // Far enough ahead that the booking can still be modified and cancelled
+    private LocalDate trekDate(Random random) {
+        return LocalDate.now().plusDays(8 + random.nextInt(bookingDays - 7));
+    }
+
+    private void think() throws InterruptedException {
+        if (thinkMillis > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(thinkMillis / 2, thinkMillis * 3 / 2 + 1));
+        }
+    }
+
+    private <T> T timed(String operation, Supplier<T> step) {
+        long start = System.nanoTime();
+        T result = step.get();
+        if (measuring) {
+            latencies.computeIfAbsent(operation, name -> new LatencyHistogram()).record(System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    private void record(String operation, BookingResult result) {
+        count(operation, result.getStatus().name());
+    }
+
+    private void count(String operation, String outcome) {
+        if (measuring) {
+            outcomes.computeIfAbsent(operation + " " + outcome, name -> new LongAdder()).increment();
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long total = 0;
+        System.out.println();
+        System.out.println(String.format("%-18s %10s %10s %10s %10s %10s", "Operation", "Count", "Ops/s", "p50 ms", "p99 ms", "Max ms"));
+        for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            total += histogram.getCount();
+            System.out.println(String.format("%-18s %10d %10.1f %10.3f %10.3f %10.3f", entry.getKey(),
+                histogram.getCount(), histogram.getCount() / seconds, millis(histogram.percentile(50)),
+                millis(histogram.percentile(99)), millis(histogram.getMax())));
+        }
+        System.out.println(String.format("%-18s %10d %10.1f", "Total", total, total / seconds));
+
+        System.out.println();
+        System.out.println("Outcomes:");
+        for (Map.Entry<String, LongAdder> entry : outcomes.entrySet()) {
+            System.out.println(String.format("  %-28s %10d", entry.getKey(), entry.getValue().sum()));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: LoadTestDriver --dir <data directory> [options]");
+        System.err.println("  --tourists N         concurrent tourist sessions (default 50)");
+        System.err.println("  --admins N           concurrent admin sessions (default 2)");
+        System.err.println("  --warmup S           seconds before measuring starts (default 10)");
+        System.err.println("  --duration S         measured seconds (default 60)");
+        System.err.println("  --think-ms N         mean pause between a user's steps; 0 = none (default 0)");
+        System.err.println("  --tourist-mix SPEC   tourist action weights (default book:50,modify:20,cancel:20,delete:10)");
+        System.err.println("  --admin-mix SPEC     admin action weights (default assign:45,status:45,dashboard:10)");
+        System.err.println("  --booking-days N     new trek dates fall 8 to N days ahead (default 90)");
+        System.err.println("  --seed N             random seed of the sessions (default 42)");
+        System.err.println("  --metrics FILE       write the application metrics of the whole run (Prometheus text)");
+        System.err.println("Saves are durable and change the directory; run it on a generated copy.");
+    }
+}
@@ -0,0 +1,58 @@
+package com.tourism.tools;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// "--name value" command-line options shared by the tools
+final class ToolOptions {
+    private final Map<String, String> values;
+
+    private ToolOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    // null if the arguments are not all --name value pairs
+    static ToolOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                return null;
+            }
+            values.put(args[i].substring(2), args[i + 1]);
+        }
+        return new ToolOptions(values);
+    }
+
+    boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    // Whole numbers may use underscores: 10_000_000
+    int getInt(String name, int defaultValue) {
+        try {
+            return has(name) ? Integer.parseInt(values.get(name).replace("_", "")) : defaultValue;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a whole number");
+        }
+    }
+
+    int getInt(String name, int defaultValue, int min) {
+        int value = getInt(name, defaultValue);
+        if (value < min) {
+            throw new IllegalArgumentException("--" + name + " must be at least " + min);
+        }
+        return value;
+    }
+
+    double getDouble(String name, double defaultValue) {
+        try {
+            return has(name) ? Double.parseDouble(values.get(name)) : defaultValue;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a number");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.tourism.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Picks values with the given relative weights (binary search over the running total)
+final class WeightedChoice<T> {
+    private final List<T> values;
+    private final double[] cumulative;
+
+    private WeightedChoice(List<T> values, double[] weights) {
+        this.values = values;
+        this.cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        if (values.isEmpty() || total <= 0) {
+            throw new IllegalArgumentException("A distribution needs at least one positive weight");
+        }
+    }
+
+    // "Nepal:30,India:25,..."
+    static WeightedChoice<String> parse(String spec) {
+        List<String> values = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected value:weight, got '" + entry + "'");
+            }
+            values.add(parts[0].trim());
+            weights.add(Double.parseDouble(parts[1].trim()));
+        }
+        double[] weightArray = new double[weights.size()];
+        for (int i = 0; i < weightArray.length; i++) {
+            weightArray[i] = weights.get(i);
+        }
+        return new WeightedChoice<>(values, weightArray);
+    }
+
+    // Index i is picked with weight 1 / (i + 1)^skew; skew 0 is uniform
+    static WeightedChoice<Integer> zipf(int count, double skew) {
+        List<Integer> values = new ArrayList<>(count);
+        double[] weights = new double[count];
+        for (int i = 0; i < count; i++) {
+            values.add(i);
+            weights[i] = 1.0 / Math.pow(i + 1, skew);
+        }
+        return new WeightedChoice<>(values, weights);
+    }
+
+    T next(Random random) {
+        double point = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, point);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return values.get(Math.min(index, values.size() - 1));
+    }
+}
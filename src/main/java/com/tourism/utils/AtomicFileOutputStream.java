@@ -0,0 +1,114 @@
+package com.tourism.utils;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * Output stream for replacing a whole data file without ever leaving it half written.
+ *
+ * Data goes to "<file>.tmp" next to the target. commit() flushes it, fsyncs it and then
+ * atomically renames it over the target, so readers see either the old or the new file.
+ * Closing without commit() discards the temp file and leaves the target untouched.
+ *
+ * With -Dtourism.backups=N (default 0) the previous N versions are kept as
+ * "<file>.bak.1" (newest) to "<file>.bak.N".
+ */
+public class AtomicFileOutputStream extends OutputStream {
+    private static final int BACKUP_COUNT = Integer.getInteger("tourism.backups", 0);
+
+    private final Path target;
+    private final Path temp;
+    private final FileOutputStream out;
+    private boolean committed = false;
+    private boolean closed = false;
+    private long written = 0;
+
+    public AtomicFileOutputStream(String path) throws IOException {
+        this.target = Paths.get(path).toAbsolutePath();
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.out = new FileOutputStream(temp.toFile());
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        written++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        written += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    // Make the new contents durable, then swap them in for the target
+    public void commit() throws IOException {
+        if (committed || closed) {
+            throw new IOException("Stream already " + (committed ? "committed" : "closed"));
+        }
+        out.flush();
+        out.getFD().sync();
+        out.close();
+        closed = true;
+
+        if (BACKUP_COUNT > 0 && Files.exists(target)) {
+            rotateBackups();
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory();
+        committed = true;
+        Metrics.recordWrite(target.toString(), written);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            out.close();
+            closed = true;
+        }
+        if (!committed) {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // .bak.N-1 -> .bak.N, ..., then the current file becomes .bak.1
+    private void rotateBackups() throws IOException {
+        for (int i = BACKUP_COUNT - 1; i >= 1; i--) {
+            Path older = backupPath(i);
+            if (Files.exists(older)) {
+                Files.move(older, backupPath(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        // A hard link keeps the old contents once the rename replaces the target; copy if links are unsupported
+        Path newest = backupPath(1);
+        Files.deleteIfExists(newest);
+        try {
+            Files.createLink(newest, target);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(target, newest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path backupPath(int generation) {
+        return target.resolveSibling(target.getFileName() + ".bak." + generation);
+    }
+
+    // Persist the rename itself; not possible on every platform, so failures are ignored
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(target.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // e.g. Windows cannot open a directory as a channel
+        }
+    }
+}
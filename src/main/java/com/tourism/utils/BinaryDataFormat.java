@@ -0,0 +1,436 @@
+package com.tourism.utils;
+
+import com.tourism.models.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Compact binary layout for the data files (tourists.bin, guides.bin, attractions.bin, bookings.bin).
+ *
+ * Every file starts with a magic number, a format version and a file type byte, followed by
+ * entries of the form [tag byte][int length][payload]. Strings are UTF-8 with an unsigned
+ * short length, numbers are fixed width, and trek dates are stored as epoch days.
+ *
+ * bookings.bin also carries a string table: a STRING entry defines the next table index, and
+ * RECORD entries refer to attraction names, statuses and guide usernames by index. Records
+ * appended after a snapshot use INLINE entries with the strings written out, so appending
+ * never needs to know the table. A truncated last entry (crash mid-append) is ignored.
+ * Booking records end with the booking's version; older records without it read as 0.
+ */
+public class BinaryDataFormat {
+    private static final Logger LOG = Logger.get(BinaryDataFormat.class);
+    private static final int MAGIC = 0x4A524E59; // "JRNY"
+    private static final byte VERSION = 1;
+
+    private static final byte TYPE_TOURISTS = 'T';
+    private static final byte TYPE_GUIDES = 'G';
+    private static final byte TYPE_ATTRACTIONS = 'A';
+    private static final byte TYPE_BOOKINGS = 'B';
+
+    private static final byte TAG_RECORD = 'R';
+    private static final byte TAG_STRING = 'S';
+    private static final byte TAG_INLINE = 'I';
+
+    // Tourist operations
+    public static List<Tourist> readTourists(String path) {
+        List<Tourist> tourists = new ArrayList<>();
+        try (EntryReader reader = new EntryReader(path, TYPE_TOURISTS)) {
+            while (reader.next()) {
+                if (reader.tag != TAG_RECORD) {
+                    continue;
+                }
+                Tourist tourist = new Tourist(
+                    reader.readString(),
+                    reader.readString(),
+                    reader.readString(),
+                    reader.readString(),
+                    reader.readString(),
+                    reader.readString()
+                );
+                tourist.setTotalSpent(reader.readDouble());
+                tourists.add(tourist);
+            }
+        } catch (FileNotFoundException e) {
+            // File doesn't exist yet, return empty list
+        } catch (IOException e) {
+            LOG.error("Could not read " + path, e);
+        }
+        return tourists;
+    }
+
+    public static void writeTourists(String path, Iterable<Tourist> tourists) {
+        try (EntryWriter writer = new EntryWriter(path, TYPE_TOURISTS, false)) {
+            for (Tourist tourist : tourists) {
+                writeTourist(writer, tourist);
+            }
+            writer.commit();
+        } catch (IOException e) {
+            LOG.error("Could not write " + path, e);
+        }
+    }
+
+    public static void appendTourist(String path, Tourist tourist) {
+        try (EntryWriter writer = new EntryWriter(path, TYPE_TOURISTS, true)) {
+            writeTourist(writer, tourist);
+        } catch (IOException e) {
+            LOG.error("Could not write " + path, e);
+        }
+    }
+
+    private static void writeTourist(EntryWriter writer, Tourist tourist) throws IOException {
+        writer.writeString(tourist.getUsername());
+        writer.writeString(tourist.getPassword());
+        writer.writeString(tourist.getFullName());
+        writer.writeString(tourist.getEmail());
+        writer.writeString(tourist.getPhone());
+        writer.writeString(tourist.getNationality());
+        writer.payload.writeDouble(tourist.getTotalSpent());
+        writer.endEntry(TAG_RECORD);
+    }
+
+    // Guide operations
+    public static List<Guide> readGuides(String path) {
+        List<Guide> guides = new ArrayList<>();
+        try (EntryReader reader = new EntryReader(path, TYPE_GUIDES)) {
+            while (reader.next()) {
+                if (reader.tag != TAG_RECORD) {
+                    continue;
+                }
+                String username = reader.readString();
+                String password = reader.readString();
+                String fullName = reader.readString();
+                String email = reader.readString();
+                String phone = reader.readString();
+                int languageCount = reader.readUnsignedShort();
+                List<String> languages = new ArrayList<>(languageCount);
+                for (int i = 0; i < languageCount; i++) {
+                    languages.add(reader.readString());
+                }
+                int experience = reader.readInt();
+
+                Guide guide = new Guide(username, password, fullName, email, phone, languages, experience);
+                guide.setTotalEarnings(reader.readDouble());
+                guides.add(guide);
+            }
+        } catch (FileNotFoundException e) {
+            // File doesn't exist yet, return empty list
+        } catch (IOException e) {
+            LOG.error("Could not read " + path, e);
+        }
+        return guides;
+    }
+
+    public static void writeGuides(String path, Iterable<Guide> guides) {
+        try (EntryWriter writer = new EntryWriter(path, TYPE_GUIDES, false)) {
+            for (Guide guide : guides) {
+                writeGuide(writer, guide);
+            }
+            writer.commit();
+        } catch (IOException e) {
+            LOG.error("Could not write " + path, e);
+        }
+    }
+
+    public static void appendGuide(String path, Guide guide) {
+        try (EntryWriter writer = new EntryWriter(path, TYPE_GUIDES, true)) {
+            writeGuide(writer, guide);
+        } catch (IOException e) {
+            LOG.error("Could not write " + path, e);
+        }
+    }
+
+    private static void writeGuide(EntryWriter writer, Guide guide) throws IOException {
+        writer.writeString(guide.getUsername());
+        writer.writeString(guide.getPassword());
+        writer.writeString(guide.getFullName());
+        writer.writeString(guide.getEmail());
+        writer.writeString(guide.getPhone());
+        List<String> languages = guide.getLanguages();
+        writer.payload.writeShort(languages.size());
+        for (String language : languages) {
+            writer.writeString(language);
+        }
+        writer.payload.writeInt(guide.getExperienceYears());
+        writer.payload.writeDouble(guide.getTotalEarnings());
+        writer.endEntry(TAG_RECORD);
+    }
+
+    // Attraction operations
+    public static List<Attraction> readAttractions(String path) {
+        List<Attraction> attractions = new ArrayList<>();
+        try (EntryReader reader = new EntryReader(path, TYPE_ATTRACTIONS)) {
+            while (reader.next()) {
+                if (reader.tag != TAG_RECORD) {
+                    continue;
+                }
+                attractions.add(new Attraction(
+                    reader.readString(),
+                    reader.readString(),
+                    reader.readString(),
+                    reader.readString(),
+                    reader.readDouble()
+                ));
+            }
+        } catch (FileNotFoundException e) {
+            // File doesn't exist yet, return empty list
+        } catch (IOException e) {
+            LOG.error("Could not read " + path, e);
+        }
+        return attractions;
+    }
+
+    public static void writeAttractions(String path, Iterable<Attraction> attractions) {
+        try (EntryWriter writer = new EntryWriter(path, TYPE_ATTRACTIONS, false)) {
+            for (Attraction attraction : attractions) {
+                writer.writeString(attraction.getName());
+                writer.writeString(attraction.getLocation());
+                writer.writeString(attraction.getAltitudeLevel());
+                writer.writeString(attraction.getDifficulty());
+                writer.payload.writeDouble(attraction.getBasePrice());
+                writer.endEntry(TAG_RECORD);
+            }
+            writer.commit();
+        } catch (IOException e) {
+            LOG.error("Could not write " + path, e);
+        }
+    }
+
+    // Booking operations
+    public static List<Booking> readBookings(String path, Map<String, Attraction> attractionsByName) {
+        List<Booking> bookings = new ArrayList<>();
+        List<String> stringTable = new ArrayList<>();
+        try (EntryReader reader = new EntryReader(path, TYPE_BOOKINGS)) {
+            while (reader.next()) {
+                if (reader.tag == TAG_STRING) {
+                    stringTable.add(reader.readString());
+                    continue;
+                }
+                if (reader.tag != TAG_RECORD && reader.tag != TAG_INLINE) {
+                    continue;
+                }
+                boolean inline = reader.tag == TAG_INLINE;
+                int bookingId = reader.readInt();
+                String tourist = reader.readString();
+                String guide = inline ? reader.readString() : stringTable.get(reader.readInt());
+                String attractionName = inline ? reader.readString() : stringTable.get(reader.readInt());
+                LocalDate trekDate = LocalDate.ofEpochDay(reader.readInt());
+                String status = inline ? reader.readString() : stringTable.get(reader.readInt());
+
+                Attraction attraction = attractionsByName.get(attractionName);
+                if (attraction == null) {
+                    FileHandler.reportUnresolved(bookingId, attractionName);
+                    continue;
+                }
+                Booking booking = new Booking(bookingId, tourist, attraction, trekDate);
+                booking.setGuideUsername(guide);
+                booking.setStatus(status);
+                reader.skip(8 + 1); // total price and festival flag are recomputed
+                if (reader.remaining() >= 4) {
+                    booking.setVersion(reader.readInt());
+                }
+                bookings.add(booking);
+            }
+        } catch (FileNotFoundException e) {
+            // File doesn't exist yet, return empty list
+        } catch (IOException e) {
+            LOG.error("Could not read " + path, e);
+        }
+        return bookings;
+    }
+
+    public static void writeBookings(String path, Iterable<Booking> bookings) {
+        Map<String, Integer> stringTable = new HashMap<>();
+        try (EntryWriter writer = new EntryWriter(path, TYPE_BOOKINGS, false)) {
+            for (Booking booking : bookings) {
+                // Table entries are emitted the first time a value is seen, before the record using it
+                int guideRef = tableRef(writer, stringTable, booking.getGuideUsername());
+                int attractionRef = tableRef(writer, stringTable, booking.getAttraction().getName());
+                int statusRef = tableRef(writer, stringTable, booking.getStatus());
+
+                writer.payload.writeInt(booking.getBookingId());
+                writer.writeString(booking.getTouristUsername());
+                writer.payload.writeInt(guideRef);
+                writer.payload.writeInt(attractionRef);
+                writer.payload.writeInt((int) booking.getTrekDate().toEpochDay());
+                writer.payload.writeInt(statusRef);
+                writer.payload.writeDouble(booking.getTotalPrice());
+                writer.payload.writeBoolean(booking.isFestivalDiscountApplied());
+                writer.payload.writeInt(booking.getVersion());
+                writer.endEntry(TAG_RECORD);
+            }
+            writer.commit();
+        } catch (IOException e) {
+            LOG.error("Could not write " + path, e);
+        }
+    }
+
+    public static void appendBooking(String path, Booking booking) {
+        try (EntryWriter writer = new EntryWriter(path, TYPE_BOOKINGS, true)) {
+            writer.payload.writeInt(booking.getBookingId());
+            writer.writeString(booking.getTouristUsername());
+            writer.writeString(booking.getGuideUsername());
+            writer.writeString(booking.getAttraction().getName());
+            writer.payload.writeInt((int) booking.getTrekDate().toEpochDay());
+            writer.writeString(booking.getStatus());
+            writer.payload.writeDouble(booking.getTotalPrice());
+            writer.payload.writeBoolean(booking.isFestivalDiscountApplied());
+            writer.payload.writeInt(booking.getVersion());
+            writer.endEntry(TAG_INLINE);
+        } catch (IOException e) {
+            LOG.error("Could not write " + path, e);
+        }
+    }
+
+    private static int tableRef(EntryWriter writer, Map<String, Integer> stringTable, String value) throws IOException {
+        String key = value != null ? value : "";
+        Integer ref = stringTable.get(key);
+        if (ref == null) {
+            ref = stringTable.size();
+            stringTable.put(key, ref);
+            writer.writeString(key);
+            writer.endEntry(TAG_STRING);
+        }
+        return ref;
+    }
+
+    // Buffers one entry's payload so it can be written with its length prefix
+    // Full rewrites (append == false) go through an AtomicFileOutputStream and need commit()
+    private static class EntryWriter implements Closeable {
+        private final String path;
+        private final DataOutputStream out;
+        private final AtomicFileOutputStream atomicOut;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        final DataOutputStream payload = new DataOutputStream(buffer);
+
+        EntryWriter(String path, byte fileType, boolean append) throws IOException {
+            this.path = path;
+            File file = new File(path);
+            boolean writeHeader = !append || !file.exists() || file.length() == 0;
+            atomicOut = append ? null : new AtomicFileOutputStream(path);
+            OutputStream target = append ? new FileOutputStream(file, true) : atomicOut;
+            out = new DataOutputStream(new BufferedOutputStream(target, 65536));
+            if (writeHeader) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeByte(fileType);
+            }
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IOException("String field too long for binary format: " + bytes.length + " bytes");
+            }
+            payload.writeShort(bytes.length);
+            payload.write(bytes);
+        }
+
+        void endEntry(byte tag) throws IOException {
+            out.writeByte(tag);
+            out.writeInt(buffer.size());
+            buffer.writeTo(out);
+            buffer.reset();
+        }
+
+        void commit() throws IOException {
+            out.flush();
+            if (atomicOut != null) {
+                atomicOut.commit();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+            // Full rewrites are counted by their AtomicFileOutputStream
+            if (atomicOut == null) {
+                Metrics.recordWrite(path, out.size());
+            }
+        }
+    }
+
+    // Reads one entry at a time into a reusable buffer and decodes fields from it
+    private static class EntryReader implements Closeable {
+        private final DataInputStream in;
+        private byte[] entry = new byte[256];
+        private int length;
+        private int position;
+        byte tag;
+
+        EntryReader(String path, byte fileType) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), 65536));
+            try {
+                if (in.readInt() != MAGIC || in.readByte() != VERSION || in.readByte() != fileType) {
+                    throw new IOException("Not a " + (char) fileType + " data file in binary format: " + path);
+                }
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+
+        boolean next() throws IOException {
+            int nextTag = in.read();
+            if (nextTag < 0) {
+                return false;
+            }
+            try {
+                length = in.readInt();
+                if (length < 0) {
+                    return false;
+                }
+                if (length > entry.length) {
+                    entry = new byte[Math.max(length, entry.length * 2)];
+                }
+                in.readFully(entry, 0, length);
+            } catch (EOFException e) {
+                // Last entry was cut off mid-write
+                return false;
+            }
+            tag = (byte) nextTag;
+            position = 0;
+            return true;
+        }
+
+        int readUnsignedShort() {
+            int value = ((entry[position] & 0xFF) << 8) | (entry[position + 1] & 0xFF);
+            position += 2;
+            return value;
+        }
+
+        int readInt() {
+            int value = ((entry[position] & 0xFF) << 24) | ((entry[position + 1] & 0xFF) << 16)
+                | ((entry[position + 2] & 0xFF) << 8) | (entry[position + 3] & 0xFF);
+            position += 4;
+            return value;
+        }
+
+        double readDouble() {
+            long high = readInt() & 0xFFFFFFFFL;
+            long low = readInt() & 0xFFFFFFFFL;
+            return Double.longBitsToDouble((high << 32) | low);
+        }
+
+        void skip(int bytes) {
+            position += bytes;
+        }
+
+        int remaining() {
+            return length - position;
+        }
+
+        String readString() {
+            int size = readUnsignedShort();
+            String value = new String(entry, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.tourism.utils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe source of booking IDs.
+ *
+ * IDs come from an AtomicInteger. A high-water mark in data/booking_id.hwm records the
+ * first ID not yet handed out, and it is advanced BLOCK_SIZE IDs at a time. An ID is
+ * only returned once a persisted mark covers it, so after a restart (or a crash) the
+ * counter resumes from the mark and never reissues an ID. The cost is a gap of at most
+ * one unused block. Startup reads one small file instead of scanning every booking.
+ *
+ * Blocks are claimed from the mark on disk under the exclusive data directory lock, so
+ * instances sharing the data directory hand out disjoint blocks.
+ */
+public class BookingIdAllocator {
+    private static final Logger LOG = Logger.get(BookingIdAllocator.class);
+    private static final int BLOCK_SIZE = 100;
+
+    private static final AtomicInteger nextId = new AtomicInteger(1);
+    // End (exclusive) of the block this instance has claimed
+    private static volatile int reservedUpTo = 0;
+
+    // Read the persisted mark; returns false if this data directory has none yet
+    public static synchronized boolean load() {
+        try {
+            nextId.accumulateAndGet(readMark(), Math::max);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException | NumberFormatException e) {
+            LOG.warn("Unreadable booking ID mark, rebuilding it: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public static int next() {
+        while (true) {
+            int id = nextId.get();
+            if (id < reservedUpTo) {
+                if (nextId.compareAndSet(id, id + 1)) {
+                    return id;
+                }
+            } else {
+                reserveBlock();
+            }
+        }
+    }
+
+    // An ID that already exists (loaded from file) must never be handed out again
+    public static void observe(int existingId) {
+        nextId.accumulateAndGet(existingId + 1, Math::max);
+    }
+
+    public static int peekNext() {
+        return nextId.get();
+    }
+
+    // Never moves the counter back: an ID below it may already be handed out or reserved
+    public static void reset(int next) {
+        nextId.accumulateAndGet(next, Math::max);
+    }
+
+    // Claim the next block, starting at the shared mark or at our own counter if that is higher
+    private static void reserveBlock() {
+        DataDirectoryLock.write(() -> {
+            synchronized (BookingIdAllocator.class) {
+                if (nextId.get() < reservedUpTo) {
+                    return; // another thread already reserved a block
+                }
+                int start = Math.max(currentMark(), nextId.get());
+                int mark = start + BLOCK_SIZE;
+                writeMark(mark);
+                nextId.accumulateAndGet(start, Math::max);
+                reservedUpTo = mark;
+            }
+        });
+    }
+
+    // For bulk writers that number bookings themselves (see DatasetGenerator): the next ID
+    // handed out, here or by any instance started later, is 'next'
+    public static void resetMark(int next) {
+        DataDirectoryLock.write(() -> {
+            synchronized (BookingIdAllocator.class) {
+                writeMark(next);
+                nextId.set(next);
+                reservedUpTo = 0;
+            }
+        });
+    }
+
+    private static void writeMark(int mark) {
+        try (AtomicFileOutputStream out = new AtomicFileOutputStream(FileHandler.BOOKING_ID_FILE)) {
+            out.write((mark + "\n").getBytes(StandardCharsets.UTF_8));
+            out.commit();
+        } catch (IOException e) {
+            // Still unique within this process; only restart safety is at risk
+            LOG.error("Could not save the booking ID mark", e);
+        }
+    }
+
+    private static int currentMark() {
+        try {
+            return readMark();
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int readMark() throws IOException {
+        String text = new String(Files.readAllBytes(Paths.get(FileHandler.BOOKING_ID_FILE)), StandardCharsets.UTF_8);
+        return Integer.parseInt(text.trim());
+    }
+}
@@ -0,0 +1,108 @@
+package com.tourism.utils;
+
+import com.tourism.models.*;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+// Append-only change log for bookings.
+// bookings.txt is the last snapshot; every create/update/delete since then is appended
+// to bookings.log as one small record. Startup replays snapshot + log, and the log is
+// folded back into a fresh snapshot once it grows past COMPACTION_THRESHOLD entries.
+// Entries are written through a group-commit writer, so a burst of bookings shares one fsync.
+public class BookingJournal {
+    private static final Logger LOG = Logger.get(BookingJournal.class);
+    private static final String LOG_FILE = FileHandler.BOOKINGS_LOG_FILE;
+    private static final String OP_PUT = "PUT";
+    private static final String OP_DELETE = "DELETE";
+    private static final int COMPACTION_THRESHOLD = 1000;
+
+    private static final GroupCommitWriter logWriter = new GroupCommitWriter(LOG_FILE);
+
+    private static int entriesSinceSnapshot = 0;
+
+    // Record a new or changed booking (full state, so replay is idempotent).
+    // Entries are queued in call order; the future completes once the entry is durable.
+    public static synchronized CompletableFuture<Void> recordPut(Booking booking) {
+        StringWriter entry = new StringWriter(256);
+        try {
+            entry.write("Op: " + OP_PUT + "\n");
+            FileHandler.writeBookingFields(entry, booking);
+            entry.write(FileHandler.SEPARATOR + "\n");
+        } catch (IOException e) {
+            // StringWriter does not throw
+        }
+        entriesSinceSnapshot++;
+        return logWriter.append(entry.toString());
+    }
+
+    public static synchronized CompletableFuture<Void> recordDelete(int bookingId) {
+        entriesSinceSnapshot++;
+        return logWriter.append("Op: " + OP_DELETE + "\n" +
+            "Booking ID: " + bookingId + "\n" +
+            FileHandler.SEPARATOR + "\n");
+    }
+
+    // Apply every logged change on top of the bookings loaded from the snapshot.
+    // Our own queued entries are written first, so the replay includes them.
+    public static void replay(Map<Integer, Booking> bookings, Map<String, Attraction> attractionsByName) {
+        logWriter.drain();
+        DataDirectoryLock.read(() -> replayLog(bookings, attractionsByName));
+    }
+
+    private static synchronized void replayLog(Map<Integer, Booking> bookings, Map<String, Attraction> attractionsByName) {
+        entriesSinceSnapshot = 0;
+
+        try (RecordReader reader = new RecordReader(new FileReader(LOG_FILE),
+                FileHandler.SEPARATOR, FileHandler.BOOKING_KEYS)) {
+            // A trailing record without separator was cut off mid-write and is ignored
+            while (reader.next()) {
+                applyEntry(reader, bookings, attractionsByName);
+                entriesSinceSnapshot++;
+            }
+        } catch (IOException e) {
+            // No log yet, the snapshot is complete
+        }
+    }
+
+    private static void applyEntry(RecordReader reader, Map<Integer, Booking> bookings,
+                                   Map<String, Attraction> attractionsByName) {
+        try {
+            if (OP_DELETE.equals(reader.getString(FileHandler.B_OP))) {
+                bookings.remove(reader.getInt(FileHandler.B_BOOKING_ID));
+            } else {
+                Booking booking = FileHandler.parseBooking(reader, attractionsByName);
+                if (booking != null) {
+                    bookings.put(booking.getBookingId(), booking);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Skipping unreadable booking log entry: " + e.getMessage());
+        }
+    }
+
+    public static synchronized boolean needsCompaction() {
+        return entriesSinceSnapshot >= COMPACTION_THRESHOLD;
+    }
+
+    // Write a new snapshot, then start an empty log.
+    // If we crash between the two steps the old entries are simply replayed again.
+    // The data lock comes first (lock order), and keeps other instances out of both steps.
+    public static void compact(List<Booking> bookings) {
+        DataDirectoryLock.write(FileHandler.bookingFiles(), () -> {
+            synchronized (BookingJournal.class) {
+                // Queued entries must not land in the log after it has been truncated
+                logWriter.drain();
+                FileHandler.saveAllBookings(bookings);
+                try {
+                    Files.write(Paths.get(LOG_FILE), new byte[0]);
+                    entriesSinceSnapshot = 0;
+                } catch (IOException e) {
+                    LOG.error("Could not truncate " + LOG_FILE, e);
+                }
+            }
+        });
+    }
+}
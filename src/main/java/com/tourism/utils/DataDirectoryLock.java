@@ -0,0 +1,214 @@
+package com.tourism.utils;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Coordinates access to the data directory between threads and between processes, so
+ * several copies of the app (kiosks) can share one data/ directory.
+ *
+ * Reads hold a shared FileChannel lock on data/.lock and writes an exclusive one. A JVM
+ * can hold only one lock on the file, so threads are coordinated first by an in-process
+ * read/write lock: the first reader takes the shared file lock and the last one releases
+ * it, a writer takes the exclusive file lock for its outermost section only. Both locks
+ * are reentrant, and a reader may nest inside a writer, but a thread holding only a read
+ * lock must never ask for the write lock.
+ *
+ * Change detection: the stores record the stamp (file key, mtime, size) of each file they
+ * have read. isStale() reports whether another process has written a file since then, so a
+ * store reloads only when needed. Atomic saves give a file a new key and appends change
+ * its size, so both show up even within one mtime tick. Writes made under write(files, ...)
+ * re-record the stamp of each file that was current beforehand, so a process never
+ * reloads its own writes but still notices a change another process slipped in earlier.
+ *
+ * Lock order: this lock is taken before any repository monitor.
+ */
+public class DataDirectoryLock {
+    private static final Logger LOG = Logger.get(DataDirectoryLock.class);
+    private static final ReentrantReadWriteLock localLock = new ReentrantReadWriteLock();
+    private static final Object fileLockGuard = new Object();
+    private static final Map<String, FileStamp> seenStamps = new ConcurrentHashMap<>();
+    private static FileChannel channel;
+    private static FileLock sharedLock;
+    private static int sharedHolders = 0;
+
+    // Identity of one version of a file on disk
+    private static final class FileStamp {
+        private static final FileStamp MISSING = new FileStamp(null, 0, -1);
+
+        private final Object fileKey;
+        private final long modifiedMillis;
+        private final long size;
+
+        private FileStamp(Object fileKey, long modifiedMillis, long size) {
+            this.fileKey = fileKey;
+            this.modifiedMillis = modifiedMillis;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof FileStamp)) {
+                return false;
+            }
+            FileStamp stamp = (FileStamp) other;
+            return Objects.equals(fileKey, stamp.fileKey)
+                && modifiedMillis == stamp.modifiedMillis && size == stamp.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fileKey, modifiedMillis, size);
+        }
+    }
+
+    public static <T> T read(Supplier<T> action) {
+        localLock.readLock().lock();
+        // Nested sections are already covered by the file lock of the outer one
+        boolean outermost = !localLock.isWriteLockedByCurrentThread() && localLock.getReadHoldCount() == 1;
+        try {
+            if (outermost) {
+                acquireShared();
+            }
+            try {
+                return action.get();
+            } finally {
+                if (outermost) {
+                    releaseShared();
+                }
+            }
+        } finally {
+            localLock.readLock().unlock();
+        }
+    }
+
+    public static void read(Runnable action) {
+        read(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> T write(Supplier<T> action) {
+        localLock.writeLock().lock();
+        FileLock exclusive = null;
+        try {
+            if (localLock.getWriteHoldCount() == 1) {
+                exclusive = lockFile(false);
+            }
+            try {
+                return action.get();
+            } finally {
+                release(exclusive);
+            }
+        } finally {
+            localLock.writeLock().unlock();
+        }
+    }
+
+    public static void write(Runnable action) {
+        write(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Write the given files; each one that was current before is still current afterwards
+    public static void write(String[] files, Runnable action) {
+        write(() -> {
+            List<String> current = new ArrayList<>(files.length);
+            for (String file : files) {
+                if (!isStale(file)) {
+                    current.add(file);
+                }
+            }
+            action.run();
+            markSeen(current.toArray(new String[0]));
+        });
+    }
+
+    // True if any of the files changed on disk since markSeen() was last called for it
+    public static boolean isStale(String... files) {
+        for (String file : files) {
+            if (!stampOf(file).equals(seenStamps.get(file))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Record the files' current state as read; call with the lock held
+    public static void markSeen(String... files) {
+        for (String file : files) {
+            seenStamps.put(file, stampOf(file));
+        }
+    }
+
+    private static FileStamp stampOf(String file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(Paths.get(file), BasicFileAttributes.class);
+            return new FileStamp(attributes.fileKey(), attributes.lastModifiedTime().toMillis(), attributes.size());
+        } catch (IOException e) {
+            return FileStamp.MISSING;
+        }
+    }
+
+    private static void acquireShared() {
+        synchronized (fileLockGuard) {
+            if (sharedHolders++ == 0) {
+                sharedLock = lockFile(true);
+            }
+        }
+    }
+
+    private static void releaseShared() {
+        synchronized (fileLockGuard) {
+            if (--sharedHolders == 0) {
+                release(sharedLock);
+                sharedLock = null;
+            }
+        }
+    }
+
+    // Blocks until no other process holds a conflicting lock. If the file system does not
+    // support locking we carry on with the in-process lock only.
+    private static FileLock lockFile(boolean shared) {
+        try {
+            return channel().lock(0, Long.MAX_VALUE, shared);
+        } catch (IOException e) {
+            LOG.error("Could not lock the data directory: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void release(FileLock lock) {
+        if (lock == null) {
+            return;
+        }
+        try {
+            lock.release();
+        } catch (IOException e) {
+            LOG.error("Could not release the data directory lock", e);
+        }
+    }
+
+    private static FileChannel channel() throws IOException {
+        synchronized (fileLockGuard) {
+            // An interrupt during lock() closes the channel, so reopen it when needed
+            if (channel == null || !channel.isOpen()) {
+                Path lockFile = Paths.get(FileHandler.LOCK_FILE);
+                Files.createDirectories(lockFile.toAbsolutePath().getParent());
+                channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            return channel;
+        }
+    }
+}
@@ -2,22 +2,100 @@ package com.tourism.utils;
 
 import com.tourism.models.*;
 import java.io.*;
+import java.nio.charset.Charset;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 public class FileHandler {
-    private static final String DATA_DIR = "data/";
+    private static final Logger LOG = Logger.get(FileHandler.class);
+    
+    // -Dtourism.data.dir=<path> points the app (or a benchmark) at another data directory
+    private static final String DATA_DIR = dataDirectory(System.getProperty("tourism.data.dir", "data"));
     private static final String TOURISTS_FILE = DATA_DIR + "tourists.txt";
     private static final String GUIDES_FILE = DATA_DIR + "guides.txt";
     private static final String ATTRACTIONS_FILE = DATA_DIR + "attractions.txt";
     private static final String BOOKINGS_FILE = DATA_DIR + "bookings.txt";
-    private static final String SEPARATOR = "------------------------";
+    static final String BOOKINGS_LOG_FILE = DATA_DIR + "bookings.log";
+    static final String BOOKING_ID_FILE = DATA_DIR + "booking_id.hwm";
+    static final String LOCK_FILE = DATA_DIR + ".lock";
+    
+    // Optional compact binary layout, enabled with -Dtourism.storage=binary
+    private static final boolean BINARY_STORAGE = "binary".equalsIgnoreCase(System.getProperty("tourism.storage"));
+    // Opt-in (-Dtourism.io.mmap=true): large booking snapshots are decoded from a memory mapping.
+    // Off by default because on Windows a mapped file cannot be rewritten until the mapping is collected.
+    private static final boolean MAPPED_READS = Boolean.getBoolean("tourism.io.mmap");
+    private static final long MAPPED_READ_THRESHOLD = 1024 * 1024;
+    
+    private static final GroupCommitWriter touristAppends = new GroupCommitWriter(TOURISTS_FILE);
+    private static final String TOURISTS_BIN = DATA_DIR + "tourists.bin";
+    private static final String GUIDES_BIN = DATA_DIR + "guides.bin";
+    private static final String ATTRACTIONS_BIN = DATA_DIR + "attractions.bin";
+    private static final String BOOKINGS_BIN = DATA_DIR + "bookings.bin";
+    static final String SEPARATOR = "------------------------";
+    
+    // Field slots for RecordReader, one array per file layout
+    private static final String[] TOURIST_KEYS = {
+        "Username", "Password", "Full Name", "Email", "Phone", "Nationality", "Total Spent"
+    };
+    private static final int T_USERNAME = 0, T_PASSWORD = 1, T_FULL_NAME = 2, T_EMAIL = 3,
+        T_PHONE = 4, T_NATIONALITY = 5, T_TOTAL_SPENT = 6;
+    
+    private static final String[] GUIDE_KEYS = {
+        "Username", "Password", "Full Name", "Email", "Phone", "Languages", "Experience", "Total Earnings"
+    };
+    private static final int G_USERNAME = 0, G_PASSWORD = 1, G_FULL_NAME = 2, G_EMAIL = 3,
+        G_PHONE = 4, G_LANGUAGES = 5, G_EXPERIENCE = 6, G_TOTAL_EARNINGS = 7;
+    
+    private static final String[] ATTRACTION_KEYS = {
+        "Name", "Location", "Altitude", "Difficulty", "Base Price"
+    };
+    private static final int A_NAME = 0, A_LOCATION = 1, A_ALTITUDE = 2, A_DIFFICULTY = 3, A_BASE_PRICE = 4;
+    
+    private static final StoreMetrics TOURIST_METRICS = new StoreMetrics("tourists");
+    private static final StoreMetrics GUIDE_METRICS = new StoreMetrics("guides");
+    private static final StoreMetrics ATTRACTION_METRICS = new StoreMetrics("attractions");
+    private static final StoreMetrics BOOKING_METRICS = new StoreMetrics("bookings");
+    
+    // The booking journal shares this layout and adds its "Op" field
+    static final String[] BOOKING_KEYS = {
+        "Booking ID", "Tourist", "Guide", "Attraction", "Trek Date", "Status", "Op", "Version"
+    };
+    static final int B_BOOKING_ID = 0, B_TOURIST = 1, B_GUIDE = 2, B_ATTRACTION = 3,
+        B_TREK_DATE = 4, B_STATUS = 5, B_OP = 6, B_VERSION = 7;
     
+    // Exclusive, so two instances starting together create the defaults only once
     public static void initializeDataFiles() {
-        createDataDirectory();
-        initializeDefaultAttractions();
-        initializeDefaultGuides();
-        initializeBookingIdCounter();
+        DataDirectoryLock.write(() -> {
+            createDataDirectory();
+            initializeDefaultAttractions();
+            initializeDefaultGuides();
+            initializeBookingIdCounter();
+        });
+    }
+    
+    // Files behind each store, for detecting writes by other instances (see DataDirectoryLock)
+    public static String[] touristFiles() {
+        return new String[] { BINARY_STORAGE ? TOURISTS_BIN : TOURISTS_FILE };
+    }
+    
+    public static String[] guideFiles() {
+        return new String[] { BINARY_STORAGE ? GUIDES_BIN : GUIDES_FILE };
+    }
+    
+    public static String[] attractionFiles() {
+        return new String[] { BINARY_STORAGE ? ATTRACTIONS_BIN : ATTRACTIONS_FILE };
+    }
+    
+    public static String[] bookingFiles() {
+        return new String[] { BINARY_STORAGE ? BOOKINGS_BIN : BOOKINGS_FILE, BOOKINGS_LOG_FILE };
+    }
+    
+    private static String dataDirectory(String path) {
+        return path.endsWith("/") || path.endsWith(File.separator) ? path : path + "/";
     }
     
     private static void createDataDirectory() {
@@ -27,68 +105,97 @@ public class FileHandler {
         }
     }
     
-    // Initialize booking ID counter from existing bookings
+    // Initialize the booking ID counter from its persisted high-water mark.
+    // Only a data directory without a mark (e.g. from an older version) is scanned, and the
+    // mark is written right after, so that happens once.
     private static void initializeBookingIdCounter() {
-        List<Booking> existingBookings = loadBookings();
-        if (!existingBookings.isEmpty()) {
-            int maxId = existingBookings.stream()
-                .mapToInt(Booking::getBookingId)
-                .max()
-                .orElse(0);
-            Booking.setNextId(maxId + 1);
+        if (BookingIdAllocator.load()) {
+            return;
+        }
+        Map<String, Attraction> attractionsByName = indexByName(loadAttractions());
+        Map<Integer, Booking> existingBookings = new HashMap<>();
+        for (Booking booking : loadBookings(attractionsByName)) {
+            existingBookings.put(booking.getBookingId(), booking);
         }
+        BookingJournal.replay(existingBookings, attractionsByName);
+        for (int bookingId : existingBookings.keySet()) {
+            BookingIdAllocator.observe(bookingId);
+        }
+        BookingIdAllocator.resetMark(BookingIdAllocator.peekNext());
     }
     
-    // Tourist operations
-    public static void saveTourist(Tourist tourist) {
-        try (FileWriter writer = new FileWriter(TOURISTS_FILE, true)) {
-            writer.write("Username: " + tourist.getUsername() + "\n");
-            writer.write("Password: " + tourist.getPassword() + "\n");
-            writer.write("Full Name: " + tourist.getFullName() + "\n");
-            writer.write("Email: " + tourist.getEmail() + "\n");
-            writer.write("Phone: " + tourist.getPhone() + "\n");
-            writer.write("Nationality: " + tourist.getNationality() + "\n");
-            writer.write("Role: Tourist\n");
-            writer.write("Total Spent: " + tourist.getTotalSpent() + "\n");
-            writer.write(SEPARATOR + "\n");
-        } catch (IOException e) {
-            e.printStackTrace();
+    // Wait for a queued append to reach the disk; failures are reported like other save errors
+    public static void awaitDurable(CompletableFuture<Void> write) {
+        try {
+            write.join();
+        } catch (CompletionException e) {
+            LOG.error("Could not append a record", e.getCause());
         }
     }
     
+    // Tourist operations
+    // Text appends are group committed; the future completes once the record is durable
+    public static CompletableFuture<Void> saveTourist(Tourist tourist) {
+        return TOURIST_METRICS.timeAppend(() -> {
+            if (BINARY_STORAGE) {
+                DataDirectoryLock.write(touristFiles(), () -> BinaryDataFormat.appendTourist(TOURISTS_BIN, tourist));
+                return CompletableFuture.completedFuture(null);
+            }
+            StringWriter record = new StringWriter(256);
+            try {
+                writeTouristRecord(record, tourist);
+            } catch (IOException e) {
+                // StringWriter does not throw
+            }
+            return touristAppends.append(record.toString());
+        });
+    }
+    
+    private static void writeTouristRecord(Writer writer, Tourist tourist) throws IOException {
+        writer.write("Username: " + tourist.getUsername() + "\n");
+        writer.write("Password: " + tourist.getPassword() + "\n");
+        writer.write("Full Name: " + tourist.getFullName() + "\n");
+        writer.write("Email: " + tourist.getEmail() + "\n");
+        writer.write("Phone: " + tourist.getPhone() + "\n");
+        writer.write("Nationality: " + tourist.getNationality() + "\n");
+        writer.write("Role: Tourist\n");
+        writer.write("Total Spent: " + tourist.getTotalSpent() + "\n");
+        writer.write(SEPARATOR + "\n");
+    }
+    
+    // Reads take the shared data lock, writes the exclusive one
     public static List<Tourist> loadTourists() {
+        return TOURIST_METRICS.timeLoad(() -> {
+            if (BINARY_STORAGE) {
+                return DataDirectoryLock.read(() -> BinaryDataFormat.readTourists(TOURISTS_BIN));
+            }
+            // Our own queued registrations belong in what we read back
+            touristAppends.drain();
+            return DataDirectoryLock.read(FileHandler::loadTouristsText);
+        });
+    }
+    
+    private static List<Tourist> loadTouristsText() {
         List<Tourist> tourists = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(TOURISTS_FILE))) {
-            String line;
-            Map<String, String> data = new HashMap<>();
-            
-            while ((line = reader.readLine()) != null) {
-                if (line.equals(SEPARATOR)) {
-                    if (!data.isEmpty()) {
-                        Tourist tourist = new Tourist(
-                            data.get("Username"),
-                            data.get("Password"),
-                            data.get("Full Name"),
-                            data.get("Email"),
-                            data.get("Phone"),
-                            data.get("Nationality")
-                        );
-                        // After creating the tourist, set the total spent if available
-                        if (data.containsKey("Total Spent")) {
-                            try {
-                                double spent = Double.parseDouble(data.get("Total Spent"));
-                                tourist.setTotalSpent(spent);
-                            } catch (NumberFormatException e) {
-                                System.err.println("Error parsing tourist spending: " + e.getMessage());
-                            }
-                        }
-                        tourists.add(tourist);
-                        data.clear();
+        try (RecordReader reader = new RecordReader(new FileReader(TOURISTS_FILE), SEPARATOR, TOURIST_KEYS)) {
+            while (reader.next()) {
+                Tourist tourist = new Tourist(
+                    reader.getString(T_USERNAME),
+                    reader.getString(T_PASSWORD),
+                    reader.getString(T_FULL_NAME),
+                    reader.getString(T_EMAIL),
+                    reader.getString(T_PHONE),
+                    reader.getInternedString(T_NATIONALITY)
+                );
+                // After creating the tourist, set the total spent if available
+                if (reader.has(T_TOTAL_SPENT)) {
+                    try {
+                        tourist.setTotalSpent(reader.getDouble(T_TOTAL_SPENT));
+                    } catch (NumberFormatException e) {
+                        LOG.warn("Error parsing tourist spending: " + e.getMessage());
                     }
-                } else if (line.contains(": ")) {
-                    String[] parts = line.split(": ", 2);
-                    data.put(parts[0], parts[1]);
                 }
+                tourists.add(tourist);
             }
         } catch (IOException e) {
             // File doesn't exist yet, return empty list
@@ -96,27 +203,47 @@ public class FileHandler {
         return tourists;
     }
 
-    // Method to save all tourists (overwrite existing file)
-    public static void saveAllTourists(List<Tourist> tourists) {
-        try (FileWriter writer = new FileWriter(TOURISTS_FILE)) {
+    // Method to save all tourists (overwrite existing file).
+    // The saveAll* methods stream what they are given, so a generator can write more records
+    // than fit in memory (see DatasetGenerator).
+    public static void saveAllTourists(Iterable<Tourist> tourists) {
+        TOURIST_METRICS.timeSave(() -> DataDirectoryLock.write(touristFiles(), () -> {
+            if (BINARY_STORAGE) {
+                BinaryDataFormat.writeTourists(TOURISTS_BIN, tourists);
+            } else {
+                saveAllTouristsText(tourists);
+            }
+        }));
+    }
+    
+    private static void saveAllTouristsText(Iterable<Tourist> tourists) {
+        // A queued append must not land in the replacement file, which already has the record
+        touristAppends.drain();
+        try (AtomicFileOutputStream out = new AtomicFileOutputStream(TOURISTS_FILE)) {
+            Writer writer = textWriter(out);
             for (Tourist tourist : tourists) {
-                writer.write("Username: " + tourist.getUsername() + "\n");
-                writer.write("Password: " + tourist.getPassword() + "\n");
-                writer.write("Full Name: " + tourist.getFullName() + "\n");
-                writer.write("Email: " + tourist.getEmail() + "\n");
-                writer.write("Phone: " + tourist.getPhone() + "\n");
-                writer.write("Nationality: " + tourist.getNationality() + "\n");
-                writer.write("Role: Tourist\n");
-                writer.write("Total Spent: " + tourist.getTotalSpent() + "\n");
-                writer.write(SEPARATOR + "\n");
+                writeTouristRecord(writer, tourist);
             }
+            writer.flush();
+            out.commit();
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not write " + TOURISTS_FILE, e);
         }
     }
     
     // Guide operations
     public static void saveGuide(Guide guide) {
+        GUIDE_METRICS.timeAppend(() -> DataDirectoryLock.write(guideFiles(), () -> {
+            if (BINARY_STORAGE) {
+                BinaryDataFormat.appendGuide(GUIDES_BIN, guide);
+            } else {
+                saveGuideText(guide);
+            }
+        }));
+    }
+    
+    private static void saveGuideText(Guide guide) {
+        long before = new File(GUIDES_FILE).length();
         try (FileWriter writer = new FileWriter(GUIDES_FILE, true)) {
             writer.write("Username: " + guide.getUsername() + "\n");
             writer.write("Password: " + guide.getPassword() + "\n");
@@ -129,64 +256,71 @@ public class FileHandler {
             writer.write("Total Earnings: " + guide.getTotalEarnings() + "\n");
             writer.write(SEPARATOR + "\n");
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not write " + GUIDES_FILE, e);
         }
+        Metrics.recordWrite(GUIDES_FILE, new File(GUIDES_FILE).length() - before);
     }
     
     public static List<Guide> loadGuides() {
+        return GUIDE_METRICS.timeLoad(() -> DataDirectoryLock.read(() -> BINARY_STORAGE
+            ? BinaryDataFormat.readGuides(GUIDES_BIN)
+            : loadGuidesText()));
+    }
+    
+    private static List<Guide> loadGuidesText() {
         List<Guide> guides = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(GUIDES_FILE))) {
-            String line;
-            Map<String, String> data = new HashMap<>();
-            
-            while ((line = reader.readLine()) != null) {
-                if (line.equals(SEPARATOR)) {
-                    if (!data.isEmpty() && data.containsKey("Languages") && data.containsKey("Experience")) {
+        try (RecordReader reader = new RecordReader(new FileReader(GUIDES_FILE), SEPARATOR, GUIDE_KEYS)) {
+            while (reader.next()) {
+                if (!reader.has(G_LANGUAGES) || !reader.has(G_EXPERIENCE)) {
+                    continue;
+                }
+                try {
+                    List<String> languages = Arrays.asList(reader.getString(G_LANGUAGES).split("\\s*,\\s*"));
+                    int experience = reader.getInt(G_EXPERIENCE);
+                    
+                    Guide guide = new Guide(
+                        reader.getString(G_USERNAME),
+                        reader.getString(G_PASSWORD),
+                        reader.getString(G_FULL_NAME),
+                        reader.getString(G_EMAIL),
+                        reader.getString(G_PHONE),
+                        languages,
+                        experience
+                    );
+                    // After creating the guide, set the total earnings if available
+                    if (reader.has(G_TOTAL_EARNINGS)) {
                         try {
-                            List<String> languages = Arrays.asList(data.get("Languages").split("\\s*,\\s*"));
-                            int experience = Integer.parseInt(data.get("Experience"));
-                            
-                            Guide guide = new Guide(
-                                data.get("Username"),
-                                data.get("Password"),
-                                data.get("Full Name"),
-                                data.get("Email"),
-                                data.get("Phone"),
-                                languages,
-                                experience
-                            );
-                            // After creating the guide, set the total earnings if available
-                            if (data.containsKey("Total Earnings")) {
-                                try {
-                                    double earnings = Double.parseDouble(data.get("Total Earnings"));
-                                    guide.setTotalEarnings(earnings);
-                                } catch (NumberFormatException e) {
-                                    System.err.println("Error parsing guide earnings: " + e.getMessage());
-                                }
-                            }
-                            guides.add(guide);
+                            guide.setTotalEarnings(reader.getDouble(G_TOTAL_EARNINGS));
                         } catch (NumberFormatException e) {
-                            System.err.println("Error parsing guide experience: " + e.getMessage());
+                            LOG.warn("Error parsing guide earnings: " + e.getMessage());
                         }
-                        data.clear();
-                    }
-                } else if (line.contains(": ")) {
-                    String[] parts = line.split(": ", 2);
-                    if (parts.length == 2) {
-                        data.put(parts[0], parts[1]);
                     }
+                    guides.add(guide);
+                } catch (NumberFormatException e) {
+                    LOG.warn("Error parsing guide experience: " + e.getMessage());
                 }
             }
         } catch (IOException e) {
             // File doesn't exist yet, return empty list
-            System.out.println("Guides file not found, returning empty list");
+            LOG.debug("Guides file not found, returning empty list");
         }
         return guides;
     }
 
     // Method to save all guides (overwrite existing file)
-    public static void saveAllGuides(List<Guide> guides) {
-        try (FileWriter writer = new FileWriter(GUIDES_FILE)) {
+    public static void saveAllGuides(Iterable<Guide> guides) {
+        GUIDE_METRICS.timeSave(() -> DataDirectoryLock.write(guideFiles(), () -> {
+            if (BINARY_STORAGE) {
+                BinaryDataFormat.writeGuides(GUIDES_BIN, guides);
+            } else {
+                saveAllGuidesText(guides);
+            }
+        }));
+    }
+    
+    private static void saveAllGuidesText(Iterable<Guide> guides) {
+        try (AtomicFileOutputStream out = new AtomicFileOutputStream(GUIDES_FILE)) {
+            Writer writer = textWriter(out);
             for (Guide guide : guides) {
                 writer.write("Username: " + guide.getUsername() + "\n");
                 writer.write("Password: " + guide.getPassword() + "\n");
@@ -199,41 +333,40 @@ public class FileHandler {
                 writer.write("Total Earnings: " + guide.getTotalEarnings() + "\n");
                 writer.write(SEPARATOR + "\n");
             }
+            writer.flush();
+            out.commit();
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not write " + GUIDES_FILE, e);
         }
     }
     
     // Attraction operations
     public static void saveAttraction(Attraction attraction) {
-        List<Attraction> attractions = loadAttractions();
-        attractions.add(attraction);
-        saveAllAttractions(attractions);
+        ATTRACTION_METRICS.timeAppend(() -> DataDirectoryLock.write(() -> {
+            List<Attraction> attractions = loadAttractions();
+            attractions.add(attraction);
+            saveAllAttractions(attractions);
+        }));
     }
     
     public static List<Attraction> loadAttractions() {
+        return ATTRACTION_METRICS.timeLoad(() -> DataDirectoryLock.read(() -> BINARY_STORAGE
+            ? BinaryDataFormat.readAttractions(ATTRACTIONS_BIN)
+            : loadAttractionsText()));
+    }
+    
+    private static List<Attraction> loadAttractionsText() {
         List<Attraction> attractions = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(ATTRACTIONS_FILE))) {
-            String line;
-            Map<String, String> data = new HashMap<>();
-            
-            while ((line = reader.readLine()) != null) {
-                if (line.equals(SEPARATOR)) {
-                    if (!data.isEmpty()) {
-                        Attraction attraction = new Attraction(
-                            data.get("Name"),
-                            data.get("Location"),
-                            data.get("Altitude"),
-                            data.get("Difficulty"),
-                            Double.parseDouble(data.get("Base Price"))
-                        );
-                        attractions.add(attraction);
-                        data.clear();
-                    }
-                } else if (line.contains(": ")) {
-                    String[] parts = line.split(": ", 2);
-                    data.put(parts[0], parts[1]);
-                }
+        try (RecordReader reader = new RecordReader(new FileReader(ATTRACTIONS_FILE), SEPARATOR, ATTRACTION_KEYS)) {
+            while (reader.next()) {
+                Attraction attraction = new Attraction(
+                    reader.getString(A_NAME),
+                    reader.getString(A_LOCATION),
+                    reader.getInternedString(A_ALTITUDE),
+                    reader.getInternedString(A_DIFFICULTY),
+                    reader.getDouble(A_BASE_PRICE)
+                );
+                attractions.add(attraction);
             }
         } catch (IOException e) {
             // File doesn't exist yet, return empty list
@@ -241,8 +374,20 @@ public class FileHandler {
         return attractions;
     }
     
-    private static void saveAllAttractions(List<Attraction> attractions) {
-        try (FileWriter writer = new FileWriter(ATTRACTIONS_FILE)) {
+    // Method to save all attractions (overwrite existing file)
+    public static void saveAllAttractions(Iterable<Attraction> attractions) {
+        ATTRACTION_METRICS.timeSave(() -> DataDirectoryLock.write(attractionFiles(), () -> {
+            if (BINARY_STORAGE) {
+                BinaryDataFormat.writeAttractions(ATTRACTIONS_BIN, attractions);
+            } else {
+                saveAllAttractionsText(attractions);
+            }
+        }));
+    }
+    
+    private static void saveAllAttractionsText(Iterable<Attraction> attractions) {
+        try (AtomicFileOutputStream out = new AtomicFileOutputStream(ATTRACTIONS_FILE)) {
+            Writer writer = textWriter(out);
             for (Attraction attraction : attractions) {
                 writer.write("Name: " + attraction.getName() + "\n");
                 writer.write("Location: " + attraction.getLocation() + "\n");
@@ -251,64 +396,105 @@ public class FileHandler {
                 writer.write("Base Price: " + attraction.getBasePrice() + "\n");
                 writer.write(SEPARATOR + "\n");
             }
+            writer.flush();
+            out.commit();
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not write " + ATTRACTIONS_FILE, e);
         }
     }
     
     // Booking operations
     public static void saveBooking(Booking booking) {
+        BOOKING_METRICS.timeAppend(() -> DataDirectoryLock.write(bookingFiles(), () -> {
+            if (BINARY_STORAGE) {
+                BinaryDataFormat.appendBooking(BOOKINGS_BIN, booking);
+            } else {
+                saveBookingText(booking);
+            }
+        }));
+    }
+    
+    private static void saveBookingText(Booking booking) {
+        long before = new File(BOOKINGS_FILE).length();
         try (FileWriter writer = new FileWriter(BOOKINGS_FILE, true)) {
-            writer.write("Booking ID: " + booking.getBookingId() + "\n");
-            writer.write("Tourist: " + booking.getTouristUsername() + "\n");
-            writer.write("Guide: " + booking.getGuideUsername() + "\n");
-            writer.write("Attraction: " + booking.getAttraction().getName() + "\n");
-            writer.write("Trek Date: " + booking.getTrekDate() + "\n");
-            writer.write("Status: " + booking.getStatus() + "\n");
-            writer.write("Total Price: " + booking.getTotalPrice() + "\n");
-            writer.write("Festival Discount: " + booking.isFestivalDiscountApplied() + "\n");
-            writer.write(SEPARATOR + "\n");
+            writeBookingRecord(writer, booking);
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not write " + BOOKINGS_FILE, e);
         }
+        Metrics.recordWrite(BOOKINGS_FILE, new File(BOOKINGS_FILE).length() - before);
+    }
+    
+    // A booking whose attraction is missing from the attractions file is not loaded; the next
+    // compaction would drop it for good, so it is logged rather than skipped silently
+    static void reportUnresolved(int bookingId, String attractionName) {
+        LOG.warn("Booking " + bookingId + " refers to unknown attraction '" + attractionName + "' and was not loaded");
+    }
+    
+    // Shared by the bookings file and the booking journal; the caller writes the separator
+    static void writeBookingFields(Writer writer, Booking booking) throws IOException {
+        writer.write("Booking ID: " + booking.getBookingId() + "\n");
+        writer.write("Tourist: " + booking.getTouristUsername() + "\n");
+        writer.write("Guide: " + booking.getGuideUsername() + "\n");
+        writer.write("Attraction: " + booking.getAttraction().getName() + "\n");
+        writer.write("Trek Date: " + booking.getTrekDate() + "\n");
+        writer.write("Status: " + booking.getStatus() + "\n");
+        writer.write("Total Price: " + booking.getTotalPrice() + "\n");
+        writer.write("Festival Discount: " + booking.isFestivalDiscountApplied() + "\n");
+        writer.write("Version: " + booking.getVersion() + "\n");
+    }
+    
+    private static void writeBookingRecord(Writer writer, Booking booking) throws IOException {
+        writeBookingFields(writer, booking);
+        writer.write(SEPARATOR + "\n");
+    }
+    
+    // Build a booking from its parsed fields, or null if its attraction no longer exists
+    static Booking parseBooking(RecordReader reader, Map<String, Attraction> attractionsByName) {
+        // Parse booking ID to maintain consistency
+        int bookingId = reader.getInt(B_BOOKING_ID);
+        String attractionName = reader.getInternedString(B_ATTRACTION);
+        Attraction attraction = attractionsByName.get(attractionName);
+        
+        if (attraction == null) {
+            reportUnresolved(bookingId, attractionName);
+            return null;
+        }
+        
+        Booking booking = new Booking(
+            bookingId,
+            reader.getInternedString(B_TOURIST),
+            attraction,
+            reader.getDate(B_TREK_DATE)
+        );
+        booking.setGuideUsername(reader.getInternedString(B_GUIDE));
+        booking.setStatus(reader.getInternedString(B_STATUS));
+        // Records written before versioning count as version 0
+        if (reader.has(B_VERSION)) {
+            booking.setVersion(reader.getInt(B_VERSION));
+        }
+        return booking;
     }
     
     public static List<Booking> loadBookings() {
+        return loadBookings(indexByName(loadAttractions()));
+    }
+    
+    // Resolve each booking's attraction through the given name -> attraction map, so all
+    // bookings of one attraction share the caller's instance
+    public static List<Booking> loadBookings(Map<String, Attraction> attractionsByName) {
+        return BOOKING_METRICS.timeLoad(() -> DataDirectoryLock.read(() -> BINARY_STORAGE
+            ? BinaryDataFormat.readBookings(BOOKINGS_BIN, attractionsByName)
+            : loadBookingsText(attractionsByName)));
+    }
+    
+    private static List<Booking> loadBookingsText(Map<String, Attraction> attractionsByName) {
         List<Booking> bookings = new ArrayList<>();
-        List<Attraction> attractions = loadAttractions();
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(BOOKINGS_FILE))) {
-            String line;
-            Map<String, String> data = new HashMap<>();
-            
-            while ((line = reader.readLine()) != null) {
-                if (line.equals(SEPARATOR)) {
-                    if (!data.isEmpty()) {
-                        // Find the attraction
-                        Attraction attraction = attractions.stream()
-                            .filter(a -> a.getName().equals(data.get("Attraction")))
-                            .findFirst()
-                            .orElse(null);
-                        
-                        if (attraction != null) {
-                            // Parse booking ID to maintain consistency
-                            int bookingId = Integer.parseInt(data.get("Booking ID"));
-                            
-                            Booking booking = new Booking(
-                                bookingId,
-                                data.get("Tourist"),
-                                attraction,
-                                LocalDate.parse(data.get("Trek Date"))
-                            );
-                            booking.setGuideUsername(data.get("Guide"));
-                            booking.setStatus(data.get("Status"));
-                            bookings.add(booking);
-                        }
-                        data.clear();
-                    }
-                } else if (line.contains(": ")) {
-                    String[] parts = line.split(": ", 2);
-                    data.put(parts[0], parts[1]);
+        try (RecordReader reader = new RecordReader(openBookingsReader(), SEPARATOR, BOOKING_KEYS)) {
+            while (reader.next()) {
+                Booking booking = parseBooking(reader, attractionsByName);
+                if (booking != null) {
+                    bookings.add(booking);
                 }
             }
         } catch (IOException e) {
@@ -317,28 +503,101 @@ public class FileHandler {
         return bookings;
     }
 
+    private static Reader openBookingsReader() throws IOException {
+        File file = new File(BOOKINGS_FILE);
+        if (MAPPED_READS && file.length() >= MAPPED_READ_THRESHOLD) {
+            return new MappedFileReader(file.toPath(), Charset.defaultCharset());
+        }
+        return new FileReader(file);
+    }
+
+    // Full saves go through a temp file that replaces the original only once completely written
+    private static Writer textWriter(AtomicFileOutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()));
+    }
+
     // Method to save all bookings (overwrite existing file)
-    public static void saveAllBookings(List<Booking> bookings) {
-        try (FileWriter writer = new FileWriter(BOOKINGS_FILE)) {
+    public static void saveAllBookings(Iterable<Booking> bookings) {
+        BOOKING_METRICS.timeSave(() -> DataDirectoryLock.write(bookingFiles(), () -> {
+            if (BINARY_STORAGE) {
+                BinaryDataFormat.writeBookings(BOOKINGS_BIN, bookings);
+            } else {
+                saveAllBookingsText(bookings);
+            }
+        }));
+    }
+    
+    private static void saveAllBookingsText(Iterable<Booking> bookings) {
+        try (AtomicFileOutputStream out = new AtomicFileOutputStream(BOOKINGS_FILE)) {
+            Writer writer = textWriter(out);
             for (Booking booking : bookings) {
-                writer.write("Booking ID: " + booking.getBookingId() + "\n");
-                writer.write("Tourist: " + booking.getTouristUsername() + "\n");
-                writer.write("Guide: " + booking.getGuideUsername() + "\n");
-                writer.write("Attraction: " + booking.getAttraction().getName() + "\n");
-                writer.write("Trek Date: " + booking.getTrekDate() + "\n");
-                writer.write("Status: " + booking.getStatus() + "\n");
-                writer.write("Total Price: " + booking.getTotalPrice() + "\n");
-                writer.write("Festival Discount: " + booking.isFestivalDiscountApplied() + "\n");
-                writer.write(SEPARATOR + "\n");
+                writeBookingRecord(writer, booking);
             }
+            writer.flush();
+            out.commit();
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not write " + BOOKINGS_FILE, e);
         }
     }
     
+    // Migration between the text and binary layouts (see DataMigrationTool).
+    // Only the snapshot files are converted; bookings.log is text in both modes.
+    public static boolean isBinaryStorage() {
+        return BINARY_STORAGE;
+    }
+    
+    public static String exportToBinary() {
+        return DataDirectoryLock.write(FileHandler::copyTextToBinary);
+    }
+    
+    public static String importFromBinary() {
+        return DataDirectoryLock.write(FileHandler::copyBinaryToText);
+    }
+    
+    private static String copyTextToBinary() {
+        touristAppends.drain();
+        List<Tourist> tourists = loadTouristsText();
+        List<Guide> guides = loadGuidesText();
+        List<Attraction> attractions = loadAttractionsText();
+        List<Booking> bookings = loadBookingsText(indexByName(attractions));
+        
+        BinaryDataFormat.writeTourists(TOURISTS_BIN, tourists);
+        BinaryDataFormat.writeGuides(GUIDES_BIN, guides);
+        BinaryDataFormat.writeAttractions(ATTRACTIONS_BIN, attractions);
+        BinaryDataFormat.writeBookings(BOOKINGS_BIN, bookings);
+        return describeCounts(tourists, guides, attractions, bookings);
+    }
+    
+    private static String copyBinaryToText() {
+        List<Tourist> tourists = BinaryDataFormat.readTourists(TOURISTS_BIN);
+        List<Guide> guides = BinaryDataFormat.readGuides(GUIDES_BIN);
+        List<Attraction> attractions = BinaryDataFormat.readAttractions(ATTRACTIONS_BIN);
+        List<Booking> bookings = BinaryDataFormat.readBookings(BOOKINGS_BIN, indexByName(attractions));
+        
+        saveAllTouristsText(tourists);
+        saveAllGuidesText(guides);
+        saveAllAttractionsText(attractions);
+        saveAllBookingsText(bookings);
+        return describeCounts(tourists, guides, attractions, bookings);
+    }
+    
+    private static Map<String, Attraction> indexByName(List<Attraction> attractions) {
+        Map<String, Attraction> attractionsByName = new HashMap<>();
+        for (Attraction attraction : attractions) {
+            attractionsByName.putIfAbsent(attraction.getName(), attraction);
+        }
+        return attractionsByName;
+    }
+    
+    private static String describeCounts(List<Tourist> tourists, List<Guide> guides,
+                                         List<Attraction> attractions, List<Booking> bookings) {
+        return tourists.size() + " tourists, " + guides.size() + " guides, "
+            + attractions.size() + " attractions, " + bookings.size() + " bookings";
+    }
+    
     // Initialize default data
     private static void initializeDefaultAttractions() {
-        File file = new File(ATTRACTIONS_FILE);
+        File file = new File(BINARY_STORAGE ? ATTRACTIONS_BIN : ATTRACTIONS_FILE);
         if (!file.exists()) {
             List<Attraction> defaultAttractions = Arrays.asList(
                 new Attraction("Everest Base Camp", "Khumbu", "High", "Hard", 1200.0),
@@ -353,7 +612,7 @@ public class FileHandler {
     }
     
     private static void initializeDefaultGuides() {
-        File file = new File(GUIDES_FILE);
+        File file = new File(BINARY_STORAGE ? GUIDES_BIN : GUIDES_FILE);
         if (!file.exists()) {
             List<String> languages1 = Arrays.asList("English", "Nepali", "Hindi");
             List<String> languages2 = Arrays.asList("English", "Nepali");
@@ -365,4 +624,49 @@ public class FileHandler {
             saveGuide(guide2);
         }
     }
+    
+    // Timers for the public loads and saves of one store (see Metrics). Times include
+    // waiting for the data directory lock; bytes are counted where they are written.
+    private static final class StoreMetrics {
+        private final LatencyHistogram loads;
+        private final LatencyHistogram fullSaves;
+        private final LatencyHistogram appends;
+        private final LongAdder recordsRead;
+        
+        private StoreMetrics(String store) {
+            loads = Metrics.timer("tourism_file_load_seconds{store=\"" + store + "\"}");
+            fullSaves = Metrics.timer("tourism_file_save_seconds{store=\"" + store + "\",mode=\"full\"}");
+            appends = Metrics.timer("tourism_file_save_seconds{store=\"" + store + "\",mode=\"append\"}");
+            recordsRead = Metrics.counter("tourism_file_records_read_total{store=\"" + store + "\"}");
+        }
+        
+        <T> List<T> timeLoad(Supplier<List<T>> load) {
+            long start = System.nanoTime();
+            List<T> records = load.get();
+            loads.record(System.nanoTime() - start);
+            recordsRead.add(records.size());
+            return records;
+        }
+        
+        void timeSave(Runnable save) {
+            long start = System.nanoTime();
+            save.run();
+            fullSaves.record(System.nanoTime() - start);
+        }
+        
+        // Text tourist appends are only queued here; GroupCommitWriter times their batches
+        <T> T timeAppend(Supplier<T> append) {
+            long start = System.nanoTime();
+            T result = append.get();
+            appends.record(System.nanoTime() - start);
+            return result;
+        }
+        
+        void timeAppend(Runnable append) {
+            timeAppend(() -> {
+                append.run();
+                return null;
+            });
+        }
+    }
 }
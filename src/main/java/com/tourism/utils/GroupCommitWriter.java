@@ -0,0 +1,131 @@
+package com.tourism.utils;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends records to a file with group commit.
+ *
+ * Callers queue text and get a future back. A background thread waits a short window
+ * (-Dtourism.groupCommit.windowMs, default 2) for more records, then writes everything
+ * queued in one buffered write followed by one fsync and completes all the futures.
+ * While that batch is being synced the next one collects, so under bursts the number
+ * of file opens and fsyncs grows with the number of batches, not with the number of records.
+ *
+ * The file is opened per batch rather than kept open, so it can be replaced (atomic save)
+ * or truncated in between; call drain() first so no queued record lands afterwards.
+ * Batches are taken and written under the exclusive data directory lock, so another
+ * instance never sees half a batch and drain() can write the rest in its own thread.
+ */
+public class GroupCommitWriter {
+    private static final long WINDOW_NANOS =
+        TimeUnit.MILLISECONDS.toNanos(Long.getLong("tourism.groupCommit.windowMs", 2));
+
+    private final String path;
+    private final LatencyHistogram batchTimer;
+    private final LongAdder batchRecords;
+    private final Object lock = new Object();
+    private List<PendingWrite> pending = new ArrayList<>();
+    private Thread flusher;
+
+    private static class PendingWrite {
+        private final String text;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private PendingWrite(String text) {
+            this.text = text;
+        }
+    }
+
+    public GroupCommitWriter(String path) {
+        this.path = path;
+        String file = new File(path).getName();
+        this.batchTimer = Metrics.timer("tourism_group_commit_seconds{file=\"" + file + "\"}");
+        this.batchRecords = Metrics.counter("tourism_group_commit_records_total{file=\"" + file + "\"}");
+    }
+
+    // Queue text for the next batch; the future completes once it is on disk
+    public CompletableFuture<Void> append(String text) {
+        PendingWrite write = new PendingWrite(text);
+        synchronized (lock) {
+            pending.add(write);
+            if (flusher == null) {
+                flusher = new Thread(this::flushLoop, "group-commit-" + new File(path).getName());
+                flusher.setDaemon(true);
+                flusher.start();
+            }
+            lock.notifyAll();
+        }
+        return write.done;
+    }
+
+    // Writes everything queued so far (successfully or not) before returning.
+    // The caller may already hold the data lock; the flusher cannot be mid-batch then.
+    public void drain() {
+        DataDirectoryLock.write(new String[] { path }, this::flushPending);
+    }
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (lock) {
+                while (pending.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            if (WINDOW_NANOS > 0) {
+                LockSupport.parkNanos(WINDOW_NANOS);
+            }
+            DataDirectoryLock.write(new String[] { path }, this::flushPending);
+        }
+    }
+
+    // Call with the data lock held; a drain() may have emptied the queue in the meantime
+    private void flushPending() {
+        List<PendingWrite> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        IOException failure = writeBatch(batch);
+        for (PendingWrite write : batch) {
+            if (failure == null) {
+                write.done.complete(null);
+            } else {
+                write.done.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private IOException writeBatch(List<PendingWrite> batch) {
+        long start = System.nanoTime();
+        try (FileOutputStream out = new FileOutputStream(path, true)) {
+            long before = out.getChannel().position();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()), 65536);
+            for (PendingWrite write : batch) {
+                writer.write(write.text);
+            }
+            writer.flush();
+            out.getFD().sync();
+            Metrics.recordWrite(path, out.getChannel().position() - before);
+            batchTimer.record(System.nanoTime() - start);
+            batchRecords.add(batch.size());
+            return null;
+        } catch (IOException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.tourism.utils;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Leveled logger with an asynchronous appender.
+ *
+ * A call below the configured level returns after one comparison with a constant. An
+ * enabled call claims a slot in a fixed ring buffer and stores the level, the logger
+ * name, the time, the thread name and the message (or its Supplier) there; one background
+ * thread formats the line and writes it, so callers never format text or wait for the
+ * console or a file. Pass a Supplier for messages that cost something to build: it runs
+ * on the logging thread, so it must only use values that no longer change (locals, final
+ * fields), not live mutable state.
+ *
+ * When the buffer is full, DEBUG and INFO lines are dropped and counted (the count is
+ * logged once there is room again); WARN and ERROR lines wait for a free slot. Everything
+ * queued is written out at JVM shutdown.
+ *
+ *   -Dtourism.log.level=DEBUG|INFO|WARN|ERROR|OFF   default INFO
+ *   -Dtourism.log.file=<path>                       append to a file instead of stderr
+ *   -Dtourism.log.bufferSize=<n>                    ring size, rounded up to a power of two (8192)
+ */
+public final class Logger {
+    public enum Level { DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static final Level THRESHOLD = threshold(System.getProperty("tourism.log.level", "INFO"));
+    private static final int SIZE = Integer.highestOneBit(Math.max(2, Integer.getInteger("tourism.log.bufferSize", 8192) - 1)) << 1;
+    private static final int MASK = SIZE - 1;
+    private static final DateTimeFormatter TIME =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    // Slot i holds sequence s when s % SIZE == i; published[i] == s once its fields are filled in
+    private static final Event[] slots = new Event[SIZE];
+    private static final AtomicLongArray published = new AtomicLongArray(SIZE);
+    private static final AtomicLong claimed = new AtomicLong();
+    private static final AtomicLong consumed = new AtomicLong();
+    private static final LongAdder dropped = new LongAdder();
+    private static volatile boolean writerIdle;
+    private static final Thread writer;
+
+    static {
+        for (int i = 0; i < SIZE; i++) {
+            slots[i] = new Event();
+            published.set(i, -1);
+        }
+        writer = new Thread(Logger::writeLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Logger::flush, "log-flush"));
+    }
+
+    private final String name;
+
+    private Logger(String name) {
+        this.name = name;
+    }
+
+    public static Logger get(Class<?> type) {
+        return new Logger(type.getSimpleName());
+    }
+
+    public boolean isDebugEnabled() {
+        return Level.DEBUG.compareTo(THRESHOLD) >= 0;
+    }
+
+    public void debug(String message) { log(Level.DEBUG, message, null, null); }
+    public void debug(Supplier<String> message) { log(Level.DEBUG, null, message, null); }
+    public void info(String message) { log(Level.INFO, message, null, null); }
+    public void info(Supplier<String> message) { log(Level.INFO, null, message, null); }
+    public void warn(String message) { log(Level.WARN, message, null, null); }
+    public void warn(String message, Throwable error) { log(Level.WARN, message, null, error); }
+    public void error(String message) { log(Level.ERROR, message, null, null); }
+    public void error(String message, Throwable error) { log(Level.ERROR, message, null, error); }
+
+    private void log(Level level, String text, Supplier<String> lazyText, Throwable error) {
+        if (level.compareTo(THRESHOLD) < 0) {
+            return;
+        }
+        long sequence = claim(level);
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+        int index = (int) (sequence & MASK);
+        Event event = slots[index];
+        event.level = level;
+        event.logger = name;
+        event.time = System.currentTimeMillis();
+        event.thread = Thread.currentThread().getName();
+        event.text = text;
+        event.lazyText = lazyText;
+        event.error = error;
+        published.set(index, sequence);
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // The next free sequence, or -1 if the ring is full and the line may be dropped
+    private static long claim(Level level) {
+        while (true) {
+            long sequence = claimed.get();
+            if (sequence - consumed.get() >= SIZE) {
+                if (level.compareTo(Level.WARN) < 0 || Thread.currentThread() == writer) {
+                    return -1;
+                }
+                LockSupport.unpark(writer);
+                Thread.onSpinWait();
+                continue;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    private static void writeLoop() {
+        Writer out = openOutput();
+        while (true) {
+            try {
+                if (!drain(out)) {
+                    writerIdle = true;
+                    if (published.get((int) (consumed.get() & MASK)) != consumed.get()) {
+                        LockSupport.parkNanos(100_000_000L);
+                    }
+                    writerIdle = false;
+                }
+            } catch (IOException e) {
+                // Nowhere left to report it; keep consuming so callers never block
+            }
+        }
+    }
+
+    // Write every published event in order; false if there was nothing to write
+    private static boolean drain(Writer out) throws IOException {
+        long next = consumed.get();
+        int index = (int) (next & MASK);
+        if (published.get(index) != next) {
+            return false;
+        }
+        StringBuilder line = new StringBuilder(256);
+        while (published.get(index) == next) {
+            Event event = slots[index];
+            line.setLength(0);
+            event.format(line);
+            event.clear();
+            consumed.set(++next);
+            out.write(line.toString());
+            index = (int) (next & MASK);
+        }
+        long lost = dropped.sumThenReset();
+        if (lost > 0) {
+            out.write(TIME.format(Instant.now()) + " WARN  [log-writer] Logger: " + lost + " messages dropped, log buffer full\n");
+        }
+        out.flush();
+        return true;
+    }
+
+    // Write out what is queued; runs at shutdown, after which late lines may be lost
+    public static void flush() {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (consumed.get() < target && System.nanoTime() < deadline) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(1_000_000L);
+        }
+    }
+
+    private static Level threshold(String level) {
+        try {
+            return Level.valueOf(level.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown log level " + level + ", using INFO");
+            return Level.INFO;
+        }
+    }
+
+    private static Writer openOutput() {
+        String file = System.getProperty("tourism.log.file");
+        if (file != null) {
+            try {
+                return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), Charset.defaultCharset()));
+            } catch (IOException e) {
+                System.err.println("Cannot open log file " + file + ", logging to stderr: " + e.getMessage());
+            }
+        }
+        return new BufferedWriter(new OutputStreamWriter(System.err, Charset.defaultCharset()));
+    }
+
+    private static final class Event {
+        Level level;
+        String logger;
+        long time;
+        String thread;
+        String text;
+        Supplier<String> lazyText;
+        Throwable error;
+
+        // 2024-05-01 10:15:30.123 INFO  [data-access] FileHandler: message
+        void format(StringBuilder line) {
+            TIME.formatTo(Instant.ofEpochMilli(time), line);
+            line.append(' ').append(level);
+            if (level.name().length() < 5) {
+                line.append(' ');
+            }
+            line.append(" [").append(thread).append("] ").append(logger).append(": ");
+            try {
+                line.append(lazyText != null ? lazyText.get() : text);
+            } catch (RuntimeException e) {
+                line.append("<message failed: ").append(e).append('>');
+            }
+            line.append('\n');
+            if (error != null) {
+                StringWriter trace = new StringWriter();
+                error.printStackTrace(new PrintWriter(trace));
+                line.append(trace);
+            }
+        }
+
+        void clear() {
+            logger = null;
+            thread = null;
+            text = null;
+            lazyText = null;
+            error = null;
+        }
+    }
+}
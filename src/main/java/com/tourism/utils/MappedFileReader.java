@@ -0,0 +1,99 @@
+package com.tourism.utils;
+
+import java.io.*;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.*;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader that decodes a file straight out of memory-mapped windows of its FileChannel.
+ * Characters are decoded from the page cache into the caller's buffer, so large files are
+ * read without an intermediate byte[] copy or per-line Strings. Windows are remapped at
+ * the first undecoded byte, so multi-byte characters can straddle a window boundary.
+ * A character that does not fit the caller's buffer (a surrogate pair into one char) is
+ * decoded into a small carry buffer and handed out from there.
+ */
+public class MappedFileReader extends Reader {
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final CharsetDecoder decoder;
+    // Decoded characters not yet returned; kept flipped, empty when nothing is carried
+    private final CharBuffer carry = CharBuffer.allocate(16);
+    private MappedByteBuffer window;
+    private long windowStart = 0;
+    private boolean finished = false;
+
+    public MappedFileReader(Path path, Charset charset) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        carry.flip();
+        mapWindow(0);
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (carry.hasRemaining()) {
+            return takeCarried(cbuf, off, len);
+        }
+        if (finished) {
+            return -1;
+        }
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        while (true) {
+            boolean lastWindow = windowStart + window.limit() >= fileSize;
+            CoderResult result = decoder.decode(window, out, lastWindow);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (out.position() > off) {
+                return out.position() - off;
+            }
+            if (result.isOverflow()) {
+                // The next character needs more room than len; remapping would not help
+                carry.clear();
+                result = decoder.decode(window, carry, lastWindow);
+                carry.flip();
+                if (result.isError()) {
+                    result.throwException();
+                }
+                return takeCarried(cbuf, off, len);
+            }
+            if (lastWindow) {
+                decoder.flush(out);
+                finished = out.position() == off;
+                return finished ? -1 : out.position() - off;
+            }
+            // Only a partial character (or nothing) is left in this window
+            mapWindow(windowStart + window.position());
+        }
+    }
+
+    private int takeCarried(char[] cbuf, int off, int len) {
+        int count = Math.min(len, carry.remaining());
+        carry.get(cbuf, off, count);
+        return count;
+    }
+
+    private void mapWindow(long start) throws IOException {
+        windowStart = start;
+        long size = Math.min(WINDOW_SIZE, fileSize - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,165 @@
+package com.tourism.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process metrics: counters and latency timers by name, exported in the Prometheus text
+ * format.
+ *
+ * A name is a Prometheus series, family plus labels: tourism_file_load_seconds{store="bookings"}.
+ * Counters are LongAdders and timers LatencyHistograms, so updating either is lock-free and
+ * allocation-free. Look a series up once and keep the reference (a static final field);
+ * the lookup itself is meant for start-up and rare paths. Timers record nanoseconds and
+ * are exported in seconds as summaries (p50, p90, p99, p999, sum, count) plus a _max gauge.
+ *
+ * Exports are off by default:
+ *   -Dtourism.metrics.file=<path>    rewrite the file every tourism.metrics.intervalSeconds (15)
+ *                                    and once more on stopExporters()
+ *   -Dtourism.metrics.port=<port>    serve GET /metrics on the loopback address
+ */
+public class Metrics {
+    private static final Logger LOG = Logger.get(Metrics.class);
+    private static final String FILE = System.getProperty("tourism.metrics.file");
+    private static final int INTERVAL_SECONDS = Integer.getInteger("tourism.metrics.intervalSeconds", 15);
+    private static final int PORT = Integer.getInteger("tourism.metrics.port", 0);
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private static final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService fileExporter;
+    private static HttpServer server;
+
+    public static LongAdder counter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    public static LatencyHistogram timer(String name) {
+        LatencyHistogram timer = timers.get(name);
+        return timer != null ? timer : timers.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    // Bytes that reached a data file, by file name; called once per save, not per write
+    public static void recordWrite(String path, long bytes) {
+        counter("tourism_file_bytes_written_total{file=\"" + new File(path).getName() + "\"}").add(bytes);
+    }
+
+    // Start the exports configured by system properties
+    public static synchronized void startExporters() {
+        if (FILE != null && fileExporter == null) {
+            fileExporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-export");
+                thread.setDaemon(true);
+                return thread;
+            });
+            fileExporter.scheduleWithFixedDelay(() -> exportTo(FILE), INTERVAL_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+        if (PORT > 0 && server == null) {
+            try {
+                server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), PORT), 0);
+                server.createContext("/metrics", exchange -> {
+                    byte[] body = export().getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                });
+                server.start();
+            } catch (IOException e) {
+                LOG.error("Metrics endpoint not started on port " + PORT + ": " + e.getMessage());
+                server = null;
+            }
+        }
+    }
+
+    // Write the final numbers and stop the exports
+    public static synchronized void stopExporters() {
+        if (fileExporter != null) {
+            fileExporter.shutdownNow();
+            fileExporter = null;
+            exportTo(FILE);
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    // Replace the file with a snapshot, atomically so a scraper never reads half of it
+    public static void exportTo(String path) {
+        try (AtomicFileOutputStream out = new AtomicFileOutputStream(path)) {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(export());
+            writer.flush();
+            out.commit();
+        } catch (IOException e) {
+            LOG.error("Could not export metrics to " + path, e);
+        }
+    }
+
+    // All series in the Prometheus text format, grouped by family
+    public static String export() {
+        Map<String, List<String>> counterFamilies = families(counters.keySet());
+        Map<String, List<String>> timerFamilies = families(timers.keySet());
+        StringBuilder text = new StringBuilder(4096);
+
+        for (Map.Entry<String, List<String>> family : counterFamilies.entrySet()) {
+            text.append("# TYPE ").append(family.getKey()).append(" counter\n");
+            for (String series : family.getValue()) {
+                text.append(series).append(' ').append(counters.get(series).sum()).append('\n');
+            }
+        }
+
+        for (Map.Entry<String, List<String>> family : timerFamilies.entrySet()) {
+            text.append("# TYPE ").append(family.getKey()).append(" summary\n");
+            for (String series : family.getValue()) {
+                LatencyHistogram timer = timers.get(series);
+                for (double quantile : QUANTILES) {
+                    text.append(withLabel(series, "", "quantile=\"" + quantile + "\"")).append(' ')
+                        .append(seconds(timer.percentile(quantile * 100))).append('\n');
+                }
+                text.append(withLabel(series, "_sum", null)).append(' ').append(seconds(timer.getSum())).append('\n');
+                text.append(withLabel(series, "_count", null)).append(' ').append(timer.getCount()).append('\n');
+            }
+            text.append("# TYPE ").append(family.getKey()).append("_max gauge\n");
+            for (String series : family.getValue()) {
+                text.append(withLabel(series, "_max", null)).append(' ')
+                    .append(seconds(timers.get(series).getMax())).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    private static Map<String, List<String>> families(Set<String> names) {
+        Map<String, List<String>> families = new TreeMap<>();
+        for (String name : new TreeSet<>(names)) {
+            int labels = name.indexOf('{');
+            String family = labels < 0 ? name : name.substring(0, labels);
+            families.computeIfAbsent(family, key -> new ArrayList<>()).add(name);
+        }
+        return families;
+    }
+
+    // family{a="1"} -> family_sum{a="1",quantile="0.5"}
+    private static String withLabel(String series, String suffix, String label) {
+        int labels = series.indexOf('{');
+        String family = labels < 0 ? series : series.substring(0, labels);
+        String existing = labels < 0 ? "" : series.substring(labels + 1, series.length() - 1);
+        if (label != null) {
+            existing = existing.isEmpty() ? label : existing + "," + label;
+        }
+        return family + suffix + (existing.isEmpty() ? "" : "{" + existing + "}");
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+}
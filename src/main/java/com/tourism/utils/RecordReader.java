@@ -0,0 +1,343 @@
+package com.tourism.utils;
+
+import java.io.*;
+import java.time.LocalDate;
+
+/**
+ * Streaming reader for the "Key: value" record format used by the data files.
+ * Each record is a run of "Key: value" lines closed by the separator line.
+ *
+ * Known keys are mapped to fixed slots when the reader is created. Characters are
+ * scanned straight out of a reusable buffer and field values are kept as offsets into
+ * a second reusable buffer, so no per-line Strings, arrays or maps are allocated.
+ * Numbers and dates are parsed from those characters directly.
+ */
+public class RecordReader implements Closeable {
+    private static final int INTERN_TABLE_SIZE = 1024; // power of two
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Reader in;
+    private final char[] separator;
+    private final char[][] keys;
+
+    private final char[] readBuffer = new char[8192];
+    private int readPos = 0;
+    private int readLimit = 0;
+
+    private char[] line = new char[256];
+    private int lineLength = 0;
+
+    private char[] values = new char[512];
+    private int valuesLength = 0;
+    private final int[] valueStart;
+    private final int[] valueLength;
+    private boolean hasFields = false;
+
+    // Small string table so repeated values (status, attraction name, usernames)
+    // resolve to one shared String instance
+    private final String[] internTable = new String[INTERN_TABLE_SIZE];
+
+    public RecordReader(Reader in, String separator, String... keys) {
+        this.in = in;
+        this.separator = separator.toCharArray();
+        this.keys = new char[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            this.keys[i] = keys[i].toCharArray();
+        }
+        this.valueStart = new int[keys.length];
+        this.valueLength = new int[keys.length];
+    }
+
+    /**
+     * Advances to the next complete record. Returns false at end of input; a trailing
+     * record without a separator line is treated as incomplete and skipped.
+     */
+    public boolean next() throws IOException {
+        resetRecord();
+        while (readLine()) {
+            if (isSeparatorLine()) {
+                if (hasFields) {
+                    return true;
+                }
+            } else {
+                storeField();
+            }
+        }
+        return false;
+    }
+
+    public boolean has(int slot) {
+        return valueLength[slot] >= 0;
+    }
+
+    public String getString(int slot) {
+        if (!has(slot)) {
+            return null;
+        }
+        return new String(values, valueStart[slot], valueLength[slot]);
+    }
+
+    // Same as getString, but repeated values share a single String instance
+    public String getInternedString(int slot) {
+        if (!has(slot)) {
+            return null;
+        }
+        int start = valueStart[slot];
+        int length = valueLength[slot];
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + values[i];
+        }
+        int index = (hash ^ (hash >>> 16)) & (INTERN_TABLE_SIZE - 1);
+        String cached = internTable[index];
+        if (cached != null && contentEquals(cached, start, length)) {
+            return cached;
+        }
+        String value = new String(values, start, length);
+        internTable[index] = value;
+        return value;
+    }
+
+    public int getInt(int slot) {
+        if (!has(slot)) {
+            throw new NumberFormatException("Missing value for " + new String(keys[slot]));
+        }
+        int start = valueStart[slot];
+        int end = start + valueLength[slot];
+        int i = start;
+        boolean negative = false;
+        if (i < end && (values[i] == '-' || values[i] == '+')) {
+            negative = values[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            throw new NumberFormatException("For input string: \"" + getString(slot) + "\"");
+        }
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = values[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + getString(slot) + "\"");
+            }
+            result = result * 10 + digit;
+            if (result > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("For input string: \"" + getString(slot) + "\"");
+            }
+        }
+        if (negative) {
+            result = -result;
+        }
+        if (result > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getString(slot) + "\"");
+        }
+        return (int) result;
+    }
+
+    /**
+     * Plain decimals such as "1536.0" are parsed from the characters directly: with at
+     * most 15 significant digits both the digits and the power of ten are exact doubles,
+     * so a single division is correctly rounded. Anything else goes through Double.parseDouble.
+     */
+    public double getDouble(int slot) {
+        if (!has(slot)) {
+            throw new NumberFormatException("Missing value for " + new String(keys[slot]));
+        }
+        int start = valueStart[slot];
+        int end = start + valueLength[slot];
+        int i = start;
+        boolean negative = false;
+        if (i < end && (values[i] == '-' || values[i] == '+')) {
+            negative = values[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        boolean plain = i < end;
+        boolean sawDigit = false;
+        for (; i < end && plain; i++) {
+            char c = values[i];
+            if (c >= '0' && c <= '9') {
+                sawDigit = true;
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+                plain = digits <= 15 && fractionDigits <= 22;
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                plain = false;
+            }
+        }
+        if (!plain || !sawDigit) {
+            return Double.parseDouble(getString(slot).trim());
+        }
+        double result = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -result : result;
+    }
+
+    public boolean getBoolean(int slot) {
+        return has(slot) && valueLength[slot] == 4 && contentEqualsIgnoreCase("true", valueStart[slot]);
+    }
+
+    // ISO dates (yyyy-MM-dd) are read digit by digit; other shapes fall back to LocalDate.parse
+    public LocalDate getDate(int slot) {
+        if (!has(slot)) {
+            return LocalDate.parse(getString(slot));
+        }
+        int s = valueStart[slot];
+        if (valueLength[slot] == 10 && values[s + 4] == '-' && values[s + 7] == '-') {
+            int year = digits(s, 4);
+            int month = digits(s + 5, 2);
+            int day = digits(s + 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(getString(slot));
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void resetRecord() {
+        valuesLength = 0;
+        hasFields = false;
+        for (int i = 0; i < valueLength.length; i++) {
+            valueLength[i] = -1;
+        }
+    }
+
+    // Reads one line (without the line terminator) into the line buffer
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        boolean readAny = false;
+        while (true) {
+            if (readPos == readLimit) {
+                readLimit = in.read(readBuffer, 0, readBuffer.length);
+                readPos = 0;
+                if (readLimit <= 0) {
+                    readLimit = 0;
+                    return readAny;
+                }
+            }
+            readAny = true;
+            char c = readBuffer[readPos++];
+            if (c == '\n') {
+                if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                    lineLength--;
+                }
+                return true;
+            }
+            if (lineLength == line.length) {
+                char[] grown = new char[line.length * 2];
+                System.arraycopy(line, 0, grown, 0, lineLength);
+                line = grown;
+            }
+            line[lineLength++] = c;
+        }
+    }
+
+    private boolean isSeparatorLine() {
+        if (lineLength != separator.length) {
+            return false;
+        }
+        for (int i = 0; i < lineLength; i++) {
+            if (line[i] != separator[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Splits "Key: value" at the first ": " and copies the value into its slot
+    private void storeField() {
+        int colon = -1;
+        for (int i = 0; i + 1 < lineLength; i++) {
+            if (line[i] == ':' && line[i + 1] == ' ') {
+                colon = i;
+                break;
+            }
+        }
+        if (colon < 0) {
+            return;
+        }
+        hasFields = true;
+
+        int slot = findSlot(colon);
+        if (slot < 0) {
+            return;
+        }
+        int start = colon + 2;
+        int length = lineLength - start;
+        if (valuesLength + length > values.length) {
+            char[] grown = new char[Math.max(values.length * 2, valuesLength + length)];
+            System.arraycopy(values, 0, grown, 0, valuesLength);
+            values = grown;
+        }
+        System.arraycopy(line, start, values, valuesLength, length);
+        valueStart[slot] = valuesLength;
+        valueLength[slot] = length;
+        valuesLength += length;
+    }
+
+    private int findSlot(int keyLength) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            char[] key = keys[slot];
+            if (key.length != keyLength) {
+                continue;
+            }
+            int i = 0;
+            while (i < keyLength && key[i] == line[i]) {
+                i++;
+            }
+            if (i == keyLength) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int digits(int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = values[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private boolean contentEquals(String value, int start, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != values[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean contentEqualsIgnoreCase(String value, int start) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.toLowerCase(values[start + i]) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}